@@ -0,0 +1,88 @@
+package com.gabeust.forohub.config;
+
+import com.gabeust.forohub.kafka.NotificationProducer;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración de los consumidores Kafka.
+ *
+ * Define la fábrica de contenedores para consumir notificaciones por lotes: cada poll entrega hasta
+ * {@code max-batch-size} registros, el broker espera hasta {@code max-wait-ms} a juntar {@code min-bytes}
+ * y los offsets se confirman una vez procesado el lote completo.
+ *
+ * Los deserializadores se envuelven en {@code ErrorHandlingDeserializer} (ver application.properties): un
+ * registro ilegible no falla en el poll, sino que llega con el error en un header y se publica tal cual en
+ * {@link NotificationProducer#DEAD_LETTER_TOPIC}, sin reintentos, para no bloquear la partición.
+ */
+@Configuration
+public class KafkaConfig {
+
+    @Bean
+    ConcurrentKafkaListenerContainerFactory<Object, Object> notificationBatchListenerFactory(
+            ConsumerFactory<Object, Object> consumerFactory,
+            DefaultErrorHandler notificationErrorHandler,
+            @Value("${forohub.notifications.consumer.max-batch-size:500}") int maxBatchSize,
+            @Value("${forohub.notifications.consumer.max-wait-ms:200}") int maxWaitMs,
+            @Value("${forohub.notifications.consumer.min-bytes:65536}") int minBytes,
+            @Value("${forohub.notifications.consumer.concurrency:1}") int concurrency) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory.copyWithConfigurationOverride(Map.of(
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxBatchSize,
+                ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, maxWaitMs,
+                ConsumerConfig.FETCH_MIN_BYTES_CONFIG, minBytes)));
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(notificationErrorHandler);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    /**
+     * Publica en {@link NotificationProducer#DEAD_LETTER_TOPIC} los registros que no se pueden procesar.
+     * Los ilegibles se publican con los bytes originales; el resto, serializados como JSON.
+     */
+    @Bean
+    DeadLetterPublishingRecoverer notificationDeadLetterRecoverer(ProducerFactory<Object, Object> producerFactory,
+                                                                 KafkaTemplate<Object, Object> kafkaTemplate) {
+        KafkaTemplate<Object, Object> rawTemplate = new KafkaTemplate<>(producerFactory.copyWithConfigurationOverride(
+                Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)));
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, rawTemplate);
+        templates.put(Object.class, kafkaTemplate);
+        return new DeadLetterPublishingRecoverer(templates,
+                (record, e) -> new TopicPartition(NotificationProducer.DEAD_LETTER_TOPIC, -1));
+    }
+
+    /**
+     * Manejador de errores de los consumidores de notificaciones. Spring Boot lo aplica también a la fábrica
+     * por defecto. Las {@code DeserializationException} no se reintentan: van directo al recoverer.
+     */
+    @Bean
+    DefaultErrorHandler notificationErrorHandler(DeadLetterPublishingRecoverer notificationDeadLetterRecoverer) {
+        return new DefaultErrorHandler(notificationDeadLetterRecoverer);
+    }
+
+    @Bean
+    NewTopic notificationDeadLetterTopic() {
+        return TopicBuilder.name(NotificationProducer.DEAD_LETTER_TOPIC).partitions(1).build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.gabeust.forohub.config;
+
+import com.gabeust.forohub.util.NdjsonWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Aplica un tiempo límite propio a las respuestas NDJSON de {@link NdjsonWriter}.
+ *
+ * El resto de las respuestas asíncronas conserva el límite global ({@code spring.mvc.async.request-timeout});
+ * solo los recorridos en streaming, que pueden durar lo que tarde leer la tabla completa, usan
+ * {@code forohub.ndjson.timeout-ms}. Se reconocen por el tipo de contenido, que ya está fijado cuando
+ * empieza el procesamiento asíncrono.
+ */
+public class NdjsonTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    private final long timeoutMs;
+
+    /**
+     * @param timeoutMs tiempo límite de los streams en milisegundos; -1 para no limitarlos
+     */
+    public NdjsonTimeoutInterceptor(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        // WebAsyncManager entrega su AsyncWebRequest antes de iniciar el modo asíncrono: el límite todavía se puede cambiar
+        if (request instanceof AsyncWebRequest asyncRequest && isNdjson(request.getNativeResponse(HttpServletResponse.class))) {
+            asyncRequest.setTimeout(timeoutMs);
+        }
+    }
+
+    private static boolean isNdjson(HttpServletResponse response) {
+        if (response == null || response.getContentType() == null) {
+            return false;
+        }
+        try {
+            return MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(MediaType.parseMediaType(response.getContentType()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.gabeust.forohub.config;
+
+import com.gabeust.forohub.service.LookupCache;
+import com.gabeust.forohub.service.NotificationStreamService;
+import com.gabeust.forohub.service.PostSearchIndex;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Configuración de Redis pub/sub.
+ *
+ * Registra los listeners de los canales usados para mantener coherentes las cachés locales entre nodos
+ * y sus índices de búsqueda, y para repartir las notificaciones push a las conexiones abiertas en cada nodo.
+ */
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                LookupCache lookupCache,
+                                                                NotificationStreamService notificationStream,
+                                                                PostSearchIndex searchIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> lookupCache.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(LookupCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(
+                (message, pattern) -> notificationStream.onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(NotificationStreamService.CHANNEL));
+        container.addMessageListener(
+                (message, pattern) -> searchIndex.onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(PostSearchIndex.CHANNEL));
+        return container;
+    }
+}
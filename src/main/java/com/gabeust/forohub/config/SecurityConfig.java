@@ -2,6 +2,7 @@ package com.gabeust.forohub.config;
 
 import com.gabeust.forohub.config.filter.JwtValidator;
 import com.gabeust.forohub.util.JwtUtils;
+import jakarta.servlet.DispatcherType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -73,6 +74,8 @@ public class SecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Los despachos asíncronos (SSE, streaming) continúan una petición ya autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/v1/auth/**",
                                 "/oauth2/**",
@@ -1,13 +1,21 @@
 package com.gabeust.forohub.config;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final long ndjsonTimeoutMs;
+
+    public WebConfig(@Value("${forohub.ndjson.timeout-ms:-1}") long ndjsonTimeoutMs) {
+        this.ndjsonTimeoutMs = ndjsonTimeoutMs;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**") // aplica a todos los endpoints
@@ -16,4 +24,10 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true); // si usás cookies o Authorization
     }
-}
\ No newline at end of file
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // El límite global sigue en spring.mvc.async.request-timeout; solo los streams NDJSON usan el suyo
+        configurer.registerCallableInterceptors(new NdjsonTimeoutInterceptor(ndjsonTimeoutMs));
+    }
+}
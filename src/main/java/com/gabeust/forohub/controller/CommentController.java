@@ -1,8 +1,12 @@
 package com.gabeust.forohub.controller;
 
 import com.gabeust.forohub.dto.CommentDTO;
+import com.gabeust.forohub.dto.CursorPageDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gabeust.forohub.service.CommentServiceImpl;
+import com.gabeust.forohub.util.NdjsonWriter;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -18,19 +22,28 @@ import java.util.List;
 @RequestMapping("/api/v1/comments")
 public class CommentController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CommentServiceImpl commentService;
+    private final ObjectMapper objectMapper;
 
-    public CommentController(CommentServiceImpl commentService) {
+    public CommentController(CommentServiceImpl commentService, ObjectMapper objectMapper) {
         this.commentService = commentService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Obtiene la lista de todos los comentarios.
+     * Con {@code Accept: application/x-ndjson} se devuelven en streaming, un comentario por línea.
      *
-     * @return lista de comentarios
+     * @param accept encabezado Accept de la petición
+     * @return lista de comentarios, o el stream NDJSON
      */
     @GetMapping
-    public ResponseEntity<List<CommentDTO>> getAllComments(){
+    public ResponseEntity<?> getAllComments(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        if (NdjsonWriter.accepts(accept)) {
+            return NdjsonWriter.stream(objectMapper, commentService::streamAll);
+        }
         return ResponseEntity.ok(commentService.findAll());
     }
     /**
@@ -55,6 +68,32 @@ public class CommentController {
     public ResponseEntity<List<CommentDTO>> getCommentsByPost(@PathVariable Long postId) {
         return ResponseEntity.ok(commentService.findByPostId(postId));
     }
+    /**
+     * Obtiene los comentarios de un post por cursor, del más reciente al más antiguo.
+     *
+     * Se selecciona cuando la petición incluye el parámetro {@code cursor}; para la primera página
+     * se envía vacío y para las siguientes el valor {@code next} de la respuesta anterior.
+     *
+     * @param postId ID del post
+     * @param cursor cursor opaco de la página anterior, o vacío para la primera página
+     * @param size   cantidad de comentarios por página (1 a 100), por defecto 20
+     * @return página de comentarios con el total del post, o 400 si el cursor o el tamaño no son válidos
+     */
+    @GetMapping(path = "/post/{postId}", params = "cursor")
+    public ResponseEntity<CursorPageDTO<CommentDTO>> getCommentsByPostByCursor(
+            @PathVariable Long postId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(commentService.findByPostIdByCursor(postId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
     /**
      * Crea un nuevo comentario.
      *
@@ -1,10 +1,22 @@
 package com.gabeust.forohub.controller;
 
+import com.gabeust.forohub.dto.CursorPageDTO;
+import com.gabeust.forohub.dto.DeadLetterReplayDTO;
+import com.gabeust.forohub.dto.MarkReadResultDTO;
+import com.gabeust.forohub.dto.NotificationDTO;
+import com.gabeust.forohub.dto.UnreadCountDTO;
 import com.gabeust.forohub.entity.Notification;
+import com.gabeust.forohub.service.LookupCache;
+import com.gabeust.forohub.service.NotificationDeadLetterService;
 import com.gabeust.forohub.service.NotificationService;
+import com.gabeust.forohub.service.NotificationStreamService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.security.Principal;
 import java.util.List;
 /**
  * Controlador REST para exponer API de notificaciones.
@@ -13,10 +25,23 @@ import java.util.List;
 @RequestMapping("/api/v1/notifications")
 public class NotificationController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_IDS = 500;
+    private static final int MAX_REPLAY = 5000;
+
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStream;
+    private final NotificationDeadLetterService deadLetterService;
+    private final LookupCache lookupCache;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService,
+                                  NotificationStreamService notificationStream,
+                                  NotificationDeadLetterService deadLetterService,
+                                  LookupCache lookupCache) {
         this.notificationService = notificationService;
+        this.notificationStream = notificationStream;
+        this.deadLetterService = deadLetterService;
+        this.lookupCache = lookupCache;
     }
     /**
      * Obtiene las notificaciones del usuario por parámetro.
@@ -27,6 +52,104 @@ public class NotificationController {
     public ResponseEntity<List<Notification>> getNotificationsForUser(@RequestParam Long userId) {
         return ResponseEntity.ok(notificationService.getUserNotifications(userId));
     }
+    /**
+     * Obtiene la bandeja del usuario autenticado por cursor, de la más reciente a la más antigua.
+     *
+     * @param principal  usuario autenticado
+     * @param cursor     cursor opaco de la página anterior, o vacío para la primera página
+     * @param size       cantidad de notificaciones por página, por defecto 20 (máximo 100)
+     * @param unreadOnly si solo se devuelven las no leídas
+     * @return página de notificaciones, 400 si el cursor o el tamaño no son válidos,
+     *         o 404 Not Found si el usuario no existe
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<CursorPageDTO<NotificationDTO>> getInbox(Principal principal,
+                                                                   @RequestParam(defaultValue = "") String cursor,
+                                                                   @RequestParam(defaultValue = "20") int size,
+                                                                   @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long userId = lookupCache.findUserIdByEmail(principal.getName()).orElse(null);
+        if (userId == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(notificationService.getInbox(userId, cursor, size, unreadOnly));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    /**
+     * Obtiene la cantidad de notificaciones no leídas del usuario autenticado, desde un contador en Redis.
+     *
+     * @param principal usuario autenticado
+     * @return la cantidad de no leídas, o 404 Not Found si el usuario no existe
+     */
+    @GetMapping("/unread-count")
+    public ResponseEntity<UnreadCountDTO> getUnreadCount(Principal principal) {
+        return lookupCache.findUserIdByEmail(principal.getName())
+                .map(userId -> ResponseEntity.ok(new UnreadCountDTO(userId, notificationService.getUnreadCount(userId))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    /**
+     * Abre un canal Server-Sent Events con las notificaciones nuevas del usuario autenticado.
+     * Al reconectar, el navegador envía {@code Last-Event-ID} y se reenvían las que se perdieron.
+     *
+     * @param principal   usuario autenticado
+     * @param lastEventId último evento recibido, opcional
+     * @return el stream de eventos, 400 Bad Request si {@code Last-Event-ID} no es válido,
+     *         o 404 Not Found si el usuario no existe
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(Principal principal,
+                                                          @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long userId = lookupCache.findUserIdByEmail(principal.getName()).orElse(null);
+        if (userId == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(notificationStream.subscribe(userId, lastEventId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    /**
+     * Marca como leídas las notificaciones indicadas del usuario autenticado, en una sola sentencia.
+     *
+     * @param principal       usuario autenticado
+     * @param notificationIds IDs de las notificaciones (como máximo {@value #MAX_BULK_IDS})
+     * @return cantidad de notificaciones marcadas y no leídas restantes, 400 si se envían demasiados IDs,
+     *         o 404 Not Found si el usuario no existe
+     */
+    @PutMapping("/read")
+    public ResponseEntity<MarkReadResultDTO> markNotificationsRead(Principal principal,
+                                                                   @RequestBody List<Long> notificationIds) {
+        if (notificationIds.size() > MAX_BULK_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return lookupCache.findUserIdByEmail(principal.getName())
+                .map(userId -> {
+                    int updated = notificationService.markAsRead(userId, notificationIds);
+                    return ResponseEntity.ok(new MarkReadResultDTO(updated, notificationService.getUnreadCount(userId)));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+    /**
+     * Marca como leídas todas las notificaciones del usuario autenticado, en una sola sentencia.
+     *
+     * @param principal usuario autenticado
+     * @return cantidad de notificaciones marcadas y no leídas restantes, o 404 Not Found si el usuario no existe
+     */
+    @PutMapping("/read-all")
+    public ResponseEntity<MarkReadResultDTO> markAllNotificationsRead(Principal principal) {
+        return lookupCache.findUserIdByEmail(principal.getName())
+                .map(userId -> {
+                    int updated = notificationService.markAllAsRead(userId);
+                    return ResponseEntity.ok(new MarkReadResultDTO(updated, notificationService.getUnreadCount(userId)));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
     /**
      * Marca la notificación como leída.
      * @param id ID de la notificación
@@ -37,4 +160,29 @@ public class NotificationController {
         notificationService.markAsRead(id);
         return ResponseEntity.noContent().build();
     }
+    /**
+     * Cantidad de notificaciones que agotaron sus reintentos y esperan ser reenviadas.
+     *
+     * @return cantidad de dead letters pendientes
+     */
+    @GetMapping("/dead-letters/count")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Long> countDeadLetters() {
+        return ResponseEntity.ok(deadLetterService.count());
+    }
+    /**
+     * Reenvía las dead letters más antiguas a través del outbox, para que se vuelvan a procesar.
+     *
+     * @param limit cantidad máxima a reenviar, por defecto 500 (máximo {@value #MAX_REPLAY})
+     * @return cantidad reenviada y pendiente, o 400 si el límite no es válido
+     */
+    @PostMapping("/dead-letters/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DeadLetterReplayDTO> replayDeadLetters(@RequestParam(defaultValue = "500") int limit) {
+        if (limit < 1 || limit > MAX_REPLAY) {
+            return ResponseEntity.badRequest().build();
+        }
+        int replayed = deadLetterService.replay(limit);
+        return ResponseEntity.ok(new DeadLetterReplayDTO(replayed, deadLetterService.count()));
+    }
 }
@@ -1,19 +1,26 @@
 package com.gabeust.forohub.controller;
 
+import com.gabeust.forohub.dto.CursorPageDTO;
 import com.gabeust.forohub.dto.PageDTO;
 import com.gabeust.forohub.dto.PostDTO;
+import com.gabeust.forohub.dto.PostDetailDTO;
 import com.gabeust.forohub.dto.UserStatsDTO;
+import com.gabeust.forohub.service.PostDetailService;
 import com.gabeust.forohub.service.PostServiceImpl;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Controlador REST para la gestión de posts.
@@ -25,32 +32,111 @@ import java.util.List;
 @RequestMapping("api/v1/posts")
 public class PostController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final PostServiceImpl postService;
+    private final PostDetailService postDetailService;
 
-    public PostController(PostServiceImpl postService) {
+    public PostController(PostServiceImpl postService, PostDetailService postDetailService) {
         this.postService = postService;
+        this.postDetailService = postDetailService;
     }
     /**
      * Obtiene una página de posts paginados y ordenados según los parámetros enviados.
      *
      * @param page      Número de página a obtener (0-indexado), por defecto 0.
      * @param size      Cantidad de posts por página, por defecto 10.
-     * @param sortBy    Campo por el cual ordenar, por defecto "createdAt".
+     * @param sortBy    Campo por el cual ordenar, por defecto "createdAt"; "hot" ordena por actividad reciente.
      * @param direction Dirección del ordenamiento ("asc" o "desc"), por defecto "desc".
-     * @return Un PageDTO con la lista de posts y la información de paginación.
+     * @param slice     Si es true, no se ejecuta el conteo total y solo se informa si hay página siguiente.
+     * @param withTotal En modo slice, si se informan los totales aproximados desde caché.
+     * @return Un PageDTO con la lista de posts y la información de paginación; en el feed "hot",
+     *         400 si la página es negativa o el tamaño no está entre 1 y 100.
      */
     @GetMapping
-    public PageDTO<PostDTO> getAllPosts(
+    public ResponseEntity<PageDTO<PostDTO>> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String direction
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(defaultValue = "false") boolean withTotal
     ) {
-        Sort sort = direction.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        return postService.findAllPaged(page, size, sortBy, direction);
+        if ("hot".equalsIgnoreCase(sortBy)) {
+            if (!isValidHotPage(page, size)) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(postService.findHotPaged(null, page, size));
+        }
+        if (slice) {
+            return ResponseEntity.ok(postService.findAllSliced(page, size, sortBy, direction, withTotal));
+        }
+        return ResponseEntity.ok(postService.findAllPaged(page, size, sortBy, direction));
 
     }
+    /**
+     * Obtiene una página de posts por cursor (keyset), ordenados del más reciente al más antiguo.
+     *
+     * Se selecciona cuando la petición incluye el parámetro {@code cursor}; para la primera página
+     * se envía vacío y para las siguientes el valor {@code next} de la respuesta anterior.
+     *
+     * @param cursor cursor opaco de la página anterior, o vacío para la primera página
+     * @param size   cantidad de posts por página (1 a 100), por defecto 10
+     * @return página de posts con el cursor de la siguiente, o 400 si el cursor o el tamaño no son válidos
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<PostDTO>> getAllPostsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(postService.findAllByCursor(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    /**
+     * Busca posts por texto en el título y el contenido, ordenados por relevancia.
+     *
+     * @param q          texto a buscar
+     * @param categoryId ID de la categoría por la que filtrar (opcional)
+     * @param cursor     cursor opaco de la página anterior, o vacío para la primera página
+     * @param size       cantidad de posts por página (1 a 100), por defecto 10
+     * @return página de resultados con el cursor de la siguiente, o 400 si la consulta, el cursor o el tamaño
+     *         no son válidos
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDTO<PostDTO>> searchPosts(
+            @RequestParam String q,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(postService.search(q, categoryId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    /**
+     * Reconstruye el índice de búsqueda desde la base de datos. Solo para administradores.
+     *
+     * @return 202 Accepted si se lanzó la reconstrucción, 409 Conflict si ya había una en curso
+     */
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildSearchIndex() {
+        if (postService.rebuildSearchIndex()) {
+            return ResponseEntity.accepted().build();
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
     /**
      * Obtiene un post por su ID.
      *
@@ -63,15 +149,38 @@ public class PostController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+    /**
+     * Obtiene la vista completa de un post: el post con sus reacciones, el perfil del autor
+     * y la primera página de comentarios, en una sola respuesta.
+     *
+     * @param id ID del post
+     * @return vista completa si el post existe, 404 si no, 504 si la lectura del post no respondió a tiempo
+     */
+    @GetMapping("/{id}/full")
+    public ResponseEntity<PostDetailDTO> getPostDetail(@PathVariable Long id) {
+        try {
+            return postDetailService.findFullById(id)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+            }
+            throw e;
+        }
+    }
     /**
      * Obtiene una página de publicaciones filtradas por categoría.
      *
      * @param categoryId ID de la categoría
      * @param page número de página (por defecto 0)
      * @param size tamaño de página (por defecto 10)
-     * @param sortBy campo por el cual ordenar (por defecto "createdAt")
+     * @param sortBy campo por el cual ordenar (por defecto "createdAt"; "hot" ordena por actividad reciente)
      * @param direction dirección de orden ("asc" o "desc", por defecto "desc")
-     * @return página de publicaciones como PageDTO<PostDTO>
+     * @param slice si es true, no se ejecuta el conteo total y solo se informa si hay página siguiente
+     * @param withTotal en modo slice, si se informan los totales aproximados desde caché
+     * @return página de publicaciones como PageDTO<PostDTO>; en el feed "hot", 400 si la página es negativa
+     *         o el tamaño no está entre 1 y 100
      */
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<PageDTO<PostDTO>> getPostsByCategory(
@@ -79,13 +188,47 @@ public class PostController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String direction
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(defaultValue = "false") boolean withTotal
     ) {
+        if ("hot".equalsIgnoreCase(sortBy)) {
+            if (!isValidHotPage(page, size)) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(postService.findHotPaged(categoryId, page, size));
+        }
         Sort sort = direction.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
-        PageDTO<PostDTO> result = postService.findByCategoryIdPaged(categoryId, pageable);
+        PageDTO<PostDTO> result = slice
+                ? postService.findByCategoryIdSliced(categoryId, pageable, withTotal)
+                : postService.findByCategoryIdPaged(categoryId, pageable);
         return ResponseEntity.ok(result);
     }
+    /**
+     * Obtiene una página de publicaciones de una categoría por cursor (keyset),
+     * ordenadas de la más reciente a la más antigua.
+     *
+     * @param categoryId ID de la categoría
+     * @param cursor cursor opaco de la página anterior, o vacío para la primera página
+     * @param size tamaño de página (1 a 100, por defecto 10)
+     * @return página de publicaciones con el cursor de la siguiente, o 400 si el cursor o el tamaño no son válidos
+     */
+    @GetMapping(value = "/category/{categoryId}", params = "cursor")
+    public ResponseEntity<CursorPageDTO<PostDTO>> getPostsByCategoryByCursor(
+            @PathVariable("categoryId") Long categoryId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(postService.findByCategoryIdByCursor(categoryId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
     /**
      * Obtiene los posts de un autor específico.
@@ -159,4 +302,11 @@ public class PostController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    /**
+     * El ranking "hot" se lee por rango de posiciones: con tamaño 0 el rango abarcaría el ranking completo.
+     */
+    private static boolean isValidHotPage(int page, int size) {
+        return page >= 0 && size >= 1 && size <= MAX_PAGE_SIZE;
+    }
 }
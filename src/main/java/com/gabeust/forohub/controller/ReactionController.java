@@ -1,14 +1,21 @@
 package com.gabeust.forohub.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gabeust.forohub.dto.ReactionDTO;
+import com.gabeust.forohub.dto.ReactionResultDTO;
+import com.gabeust.forohub.enums.ReactionType;
 import com.gabeust.forohub.service.ReactionServiceImpl;
+import com.gabeust.forohub.util.NdjsonWriter;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 /**
  * Controlador REST para gestionar las reacciones de los usuarios (like, dislike, etc.)
  *
@@ -17,19 +24,28 @@ import java.util.List;
 @RequestMapping("api/v1/reactions")
 public class ReactionController {
 
+    private static final int MAX_MINE_POST_IDS = 100;
+
     private final ReactionServiceImpl reactionService;
+    private final ObjectMapper objectMapper;
 
-    public ReactionController(ReactionServiceImpl reactionService) {
+    public ReactionController(ReactionServiceImpl reactionService, ObjectMapper objectMapper) {
         this.reactionService = reactionService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Obtiene todas las reacciones existentes.
+     * Con {@code Accept: application/x-ndjson} se devuelven en streaming, una reacción por línea.
      *
-     * @return lista de reacciones en formato DTO
+     * @param accept encabezado Accept de la petición
+     * @return lista de reacciones en formato DTO, o el stream NDJSON
      */
     @GetMapping
-    public ResponseEntity<List<ReactionDTO>> getAllReactions() {
+    public ResponseEntity<?> getAllReactions(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (NdjsonWriter.accepts(accept)) {
+            return NdjsonWriter.stream(objectMapper, reactionService::streamAll);
+        }
         return ResponseEntity.ok(reactionService.findAll());
     }
     /**
@@ -45,27 +61,54 @@ public class ReactionController {
                 .orElse(ResponseEntity.notFound().build());
     }
     /**
-     * Crea una nueva reacción o elimina la existente si el usuario reacciona dos veces.
+     * Obtiene la reacción del usuario autenticado sobre cada post indicado, en una sola consulta.
+     * Pensado para resaltar la reacción propia en una página del feed.
+     *
+     * @param postIds IDs de los posts (como máximo {@value #MAX_MINE_POST_IDS})
+     * @param principal usuario autenticado
+     * @return mapa ID de post → tipo de reacción (los posts sin reacción no aparecen),
+     *         o 400 Bad Request si se piden demasiados posts
+     */
+    @GetMapping("/mine")
+    public ResponseEntity<Map<Long, ReactionType>> getMyReactions(@RequestParam List<Long> postIds,
+                                                                  Principal principal) {
+        if (postIds.size() > MAX_MINE_POST_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(reactionService.findMine(principal.getName(), postIds));
+    }
+    /**
+     * Crea una nueva reacción, cambia su tipo si el usuario ya había reaccionado con otro,
+     * o la elimina si reacciona dos veces con el mismo.
      *
      * @param reactionDTO datos de la reacción
      * @param uriBuilder para construir la URI del nuevo recurso
-     * @return 201 Created si se crea, 204 No Content si se elimina
+     * @return 201 Created si se crea, 200 OK si cambia de tipo, 204 No Content si se elimina,
+     *         202 Accepted si se creó en el buffer de escritura diferida y todavía no tiene ID,
+     *         o 204 No Content si no había reacción que quitar
      */
     @PostMapping
     public ResponseEntity<ReactionDTO> createReaction(@Valid @RequestBody ReactionDTO reactionDTO,
                                                       UriComponentsBuilder uriBuilder) {
-        ReactionDTO savedReaction = reactionService.save(reactionDTO);
-
-        if (savedReaction == null) {
-            return ResponseEntity.noContent().build(); // 💡 reacción eliminada
+        ReactionResultDTO result = reactionService.save(reactionDTO);
+        if (result == null) {
+            return ResponseEntity.noContent().build();
         }
 
-        URI location = uriBuilder
-                .path("/api/v1/reactions/{id}")
-                .buildAndExpand(savedReaction.id())
-                .toUri();
-
-        return ResponseEntity.created(location).body(savedReaction);
+        return switch (result.outcome()) {
+            case REMOVED -> ResponseEntity.noContent().build();
+            case CHANGED -> ResponseEntity.ok(result.reaction());
+            case CREATED -> {
+                if (result.reaction().id() == null) {
+                    yield ResponseEntity.accepted().body(result.reaction());
+                }
+                URI location = uriBuilder
+                        .path("/api/v1/reactions/{id}")
+                        .buildAndExpand(result.reaction().id())
+                        .toUri();
+                yield ResponseEntity.created(location).body(result.reaction());
+            }
+        };
     }
     /**
      * Elimina una reacción por su ID.
@@ -1,10 +1,13 @@
 package com.gabeust.forohub.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gabeust.forohub.entity.Role;
 import com.gabeust.forohub.entity.User;
 import com.gabeust.forohub.service.RoleServiceImpl;
 import com.gabeust.forohub.service.UserServiceImpl;
+import com.gabeust.forohub.util.NdjsonWriter;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,18 +24,26 @@ public class UserController {
 
     private final UserServiceImpl userService;
     private final RoleServiceImpl roleService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserServiceImpl userService, RoleServiceImpl roleService) {
+    public UserController(UserServiceImpl userService, RoleServiceImpl roleService, ObjectMapper objectMapper) {
         this.userService = userService;
         this.roleService = roleService;
+        this.objectMapper = objectMapper;
     }
     /**
      * Obtiene todos los usuarios registrados en el sistema.
+     * Con {@code Accept: application/x-ndjson} se devuelven en streaming, un usuario por línea
+     * y solo con sus datos públicos (sin credenciales ni relaciones).
      *
-     * @return lista de usuarios
+     * @param accept encabezado Accept de la petición
+     * @return lista de usuarios, o el stream NDJSON
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers(){
+    public ResponseEntity<?> getAllUsers(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        if (NdjsonWriter.accepts(accept)) {
+            return NdjsonWriter.stream(objectMapper, userService::streamAll);
+        }
         return ResponseEntity.ok(userService.findAll());
     }
     /**
@@ -0,0 +1,11 @@
+package com.gabeust.forohub.dto;
+
+/**
+ * Datos mínimos de un autor resueltos a partir de su nick.
+ *
+ * @param id    ID del usuario
+ * @param nick  nick del perfil
+ * @param image imagen del perfil
+ */
+public record AuthorRefDTO(Long id, String nick, String image) {
+}
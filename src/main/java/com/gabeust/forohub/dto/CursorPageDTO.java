@@ -0,0 +1,21 @@
+package com.gabeust.forohub.dto;
+
+import java.util.List;
+
+/**
+ * Página obtenida por cursor (keyset). No se ejecuta ningún conteo: el total solo se informa
+ * cuando se conoce de antemano por un contador mantenido.
+ *
+ * @param content       elementos de la página
+ * @param size          tamaño de página solicitado
+ * @param next          cursor opaco para pedir la página siguiente, o null si es la última
+ * @param last          indica si es la última página
+ * @param totalElements total de elementos, o -1 si no se conoce
+ */
+public record CursorPageDTO<T>(
+        List<T> content,
+        int size,
+        String next,
+        boolean last,
+        long totalElements
+) {}
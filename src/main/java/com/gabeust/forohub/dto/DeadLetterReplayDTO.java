@@ -0,0 +1,10 @@
+package com.gabeust.forohub.dto;
+
+/**
+ * Resultado de reenviar dead letters de notificaciones.
+ *
+ * @param replayed  cantidad reenviada en esta llamada
+ * @param remaining cantidad que sigue pendiente
+ */
+public record DeadLetterReplayDTO(int replayed, long remaining) {
+}
@@ -0,0 +1,10 @@
+package com.gabeust.forohub.dto;
+
+/**
+ * Resultado de marcar notificaciones como leídas.
+ *
+ * @param updated cantidad de notificaciones que pasaron de no leídas a leídas
+ * @param unread  cantidad de notificaciones no leídas que quedan
+ */
+public record MarkReadResultDTO(int updated, long unread) {
+}
@@ -0,0 +1,30 @@
+package com.gabeust.forohub.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificación tal como se entrega al destinatario.
+ *
+ * @param id           ID de la notificación
+ * @param type         tipo (COMMENT, REACTION)
+ * @param message      mensaje a mostrar
+ * @param postId       ID del post involucrado
+ * @param commentId    ID del último comentario agrupado, si corresponde
+ * @param reactionId   ID de la última reacción agrupada, si corresponde
+ * @param actorCount   cantidad de acciones agrupadas
+ * @param latestActors nicks de los últimos actores, separados por coma
+ * @param read         si ya fue leída
+ * @param createdAt    fecha de la última acción agrupada
+ */
+public record NotificationDTO(
+        Long id,
+        String type,
+        String message,
+        Long postId,
+        Long commentId,
+        Long reactionId,
+        int actorCount,
+        String latestActors,
+        boolean read,
+        LocalDateTime createdAt
+) {}
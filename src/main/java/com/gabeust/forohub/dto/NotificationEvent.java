@@ -1,11 +1,22 @@
 package com.gabeust.forohub.dto;
 
+/**
+ * Evento de notificación publicado en Kafka.
+ *
+ * @param recipientUserId ID del usuario que recibe la notificación
+ * @param type            tipo de notificación (COMMENT, REACTION)
+ * @param message         mensaje para una sola acción
+ * @param postId          ID del post involucrado
+ * @param commentId       ID del comentario, si corresponde
+ * @param reactionId      ID de la reacción, si corresponde
+ * @param actorNick       nick de quien generó el evento, usado para agrupar notificaciones
+ */
 public record NotificationEvent(
         Long recipientUserId,
         String type,
         String message,
         Long postId,
         Long commentId,
-        Long reactionId
+        Long reactionId,
+        String actorNick
 ) {}
-
@@ -0,0 +1,30 @@
+package com.gabeust.forohub.dto;
+
+import com.gabeust.forohub.enums.ReactionType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Proyección con las columnas de {@link PostDTO}, obtenida en una sola consulta con joins
+ * sin hidratar las entidades Post, User, Profile ni Category.
+ */
+public record PostCardDTO(Long id,
+                          String title,
+                          String content,
+                          String authorNick,
+                          Long authorId,
+                          String authorImage,
+                          String categoryName,
+                          LocalDateTime createdAt) {
+
+    /**
+     * Convierte la proyección en un PostDTO con las reacciones indicadas.
+     *
+     * @param reactions cantidad de reacciones por tipo
+     * @return DTO de la publicación
+     */
+    public PostDTO toPostDTO(Map<ReactionType, Long> reactions) {
+        return new PostDTO(id, title, content, authorNick, authorId, authorImage, categoryName, createdAt, reactions);
+    }
+}
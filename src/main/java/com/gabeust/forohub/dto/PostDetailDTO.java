@@ -0,0 +1,28 @@
+package com.gabeust.forohub.dto;
+
+import java.util.List;
+
+/**
+ * Vista completa de un hilo: la publicación con sus reacciones, el perfil del autor
+ * y la primera página de comentarios.
+ *
+ * Las partes secundarias pueden venir vacías si su consulta no respondió a tiempo o falló:
+ * {@code author} en null, {@code comments} sin elementos o las reacciones del post en null.
+ * En ese caso {@code degraded} las nombra, así el cliente distingue "sin comentarios" de
+ * "los comentarios no llegaron a tiempo".
+ *
+ * @param post     publicación con sus reacciones por tipo
+ * @param author   perfil del autor
+ * @param comments primera página de comentarios, del más reciente al más antiguo
+ * @param degraded partes que se devolvieron vacías ({@value #REACTIONS}, {@value #AUTHOR}, {@value #COMMENTS});
+ *                 vacía si la vista está completa
+ */
+public record PostDetailDTO(PostDTO post,
+                            ProfileDTO author,
+                            CursorPageDTO<CommentDTO> comments,
+                            List<String> degraded) {
+
+    public static final String REACTIONS = "reactions";
+    public static final String AUTHOR = "author";
+    public static final String COMMENTS = "comments";
+}
@@ -0,0 +1,12 @@
+package com.gabeust.forohub.dto;
+
+import com.gabeust.forohub.enums.ReactionType;
+
+/**
+ * Tipo de reacción de un usuario sobre un post.
+ *
+ * @param postId       ID del post
+ * @param reactionType tipo de reacción
+ */
+public record PostReactionTypeDTO(Long postId, ReactionType reactionType) {
+}
@@ -0,0 +1,15 @@
+package com.gabeust.forohub.dto;
+
+/**
+ * Datos de una publicación necesarios para indexarla en el buscador.
+ *
+ * @param id         ID de la publicación
+ * @param title      título
+ * @param content    contenido
+ * @param categoryId ID de la categoría, puede ser null
+ */
+public record PostSearchDocDTO(Long id,
+                               String title,
+                               String content,
+                               Long categoryId) {
+}
@@ -0,0 +1,15 @@
+package com.gabeust.forohub.dto;
+
+import com.gabeust.forohub.enums.ReactionType;
+
+/**
+ * Proyección con la cantidad de reacciones de un tipo para un post.
+ *
+ * Se obtiene agrupando las reacciones por post y por tipo en una sola consulta.
+ *
+ * @param postId       ID del post
+ * @param reactionType tipo de reacción
+ * @param total        cantidad de reacciones de ese tipo
+ */
+public record ReactionCountDTO(Long postId, ReactionType reactionType, Long total) {
+}
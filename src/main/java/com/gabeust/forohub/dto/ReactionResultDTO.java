@@ -0,0 +1,13 @@
+package com.gabeust.forohub.dto;
+
+import com.gabeust.forohub.enums.ReactionOutcome;
+
+/**
+ * Resultado de guardar una reacción.
+ *
+ * @param outcome  si la reacción se creó, cambió de tipo o se quitó
+ * @param reaction reacción vigente, o null si se quitó
+ */
+public record ReactionResultDTO(ReactionOutcome outcome,
+                                ReactionDTO reaction) {
+}
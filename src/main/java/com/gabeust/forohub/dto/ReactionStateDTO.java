@@ -0,0 +1,20 @@
+package com.gabeust.forohub.dto;
+
+import com.gabeust.forohub.enums.ReactionType;
+
+/**
+ * Estado actual de la reacción de un usuario sobre un post, junto con los datos del post
+ * necesarios para aplicar un cambio.
+ *
+ * @param postId       ID del post
+ * @param postAuthorId ID del autor del post
+ * @param categoryId   ID de la categoría del post, puede ser null
+ * @param reactionId   ID de la reacción existente del usuario, o null si no reaccionó
+ * @param reactionType tipo de la reacción existente, o null si no reaccionó
+ */
+public record ReactionStateDTO(Long postId,
+                               Long postAuthorId,
+                               Long categoryId,
+                               Long reactionId,
+                               ReactionType reactionType) {
+}
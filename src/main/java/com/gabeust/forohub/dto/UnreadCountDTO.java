@@ -0,0 +1,10 @@
+package com.gabeust.forohub.dto;
+
+/**
+ * Cantidad de notificaciones no leídas de un usuario.
+ *
+ * @param userId ID del usuario
+ * @param unread cantidad de notificaciones no leídas
+ */
+public record UnreadCountDTO(Long userId, Long unread) {
+}
@@ -0,0 +1,15 @@
+package com.gabeust.forohub.dto;
+
+/**
+ * Datos públicos de un usuario, sin credenciales ni relaciones.
+ *
+ * @param id     ID del usuario
+ * @param email  email
+ * @param nick   nick del perfil, o null si no tiene perfil
+ * @param enable si la cuenta está habilitada
+ */
+public record UserSummaryDTO(Long id,
+                             String email,
+                             String nick,
+                             Boolean enable) {
+}
@@ -1,5 +1,6 @@
 package com.gabeust.forohub.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -12,7 +13,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications",
+        uniqueConstraints = @UniqueConstraint(name = "uk_notification_group", columnNames = "group_key"),
+        indexes = {
+                @Index(name = "idx_notification_recipient_created_id", columnList = "recipient_user_id, created_at, id"),
+                @Index(name = "idx_notification_recipient_read_created_id", columnList = "recipient_user_id, is_read, created_at, id")
+        })
 public class Notification {
 
     @Id
@@ -29,6 +35,17 @@ public class Notification {
     @Column(name = "is_read", nullable = false)
     private boolean isRead = false;
 
+    // Cantidad de acciones agrupadas en esta notificación
+    @Column(name = "actor_count", nullable = false, columnDefinition = "INT NOT NULL DEFAULT 1")
+    private int actorCount = 1;
+    // Nicks de los últimos actores, del más reciente al más antiguo, separados por coma
+    @Column(name = "latest_actors")
+    private String latestActors;
+    // Destinatario, post, tipo y ventana de tiempo de la agrupación; una clave aleatoria si no se agrupa
+    @JsonIgnore
+    @Column(name = "group_key", length = 100)
+    private String groupKey;
+
     private LocalDateTime createdAt = LocalDateTime.now();
 
 }
@@ -0,0 +1,37 @@
+package com.gabeust.forohub.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de notificación que no se pudo guardar después de agotar todos los reintentos.
+ *
+ * Queda aquí hasta que un administrador lo reenvíe; reenviarlo lo vuelve a pasar por el outbox.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "notification_dead_letter")
+public class NotificationDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // NotificationEvent serializado en JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    // Topic o transporte donde falló por última vez
+    @Column(name = "source")
+    private String source;
+    @Column(name = "error", length = 1000)
+    private String error;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,33 @@
+package com.gabeust.forohub.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de notificación pendiente de publicar en Kafka (outbox transaccional).
+ *
+ * Se inserta en la misma transacción que el comentario o la reacción que lo origina, así que solo existe
+ * si esa transacción se confirma. Un relay en segundo plano lo publica y luego lo borra.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // NotificationEvent serializado en JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,35 @@
+package com.gabeust.forohub.entity;
+
+import com.gabeust.forohub.enums.ReactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Contador desnormalizado de reacciones por post y por tipo.
+ *
+ * Se mantiene de forma incremental al crear, cambiar o eliminar reacciones,
+ * para que la lectura del feed no tenga que contar filas de {@link Reaction}.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "post_reaction_counter",
+        uniqueConstraints = @UniqueConstraint(name = "uk_post_reaction_counter", columnNames = {"post_id", "reaction_type"}))
+public class PostReactionCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reaction_type", nullable = false)
+    private ReactionType reactionType;
+    @Column(nullable = false)
+    private long total;
+}
@@ -12,6 +12,7 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_reaction_user_post", columnNames = {"user_id", "post_id"}))
 public class Reaction {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
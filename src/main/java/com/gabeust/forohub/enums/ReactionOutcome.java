@@ -0,0 +1,10 @@
+package com.gabeust.forohub.enums;
+
+/**
+ * Resultado de aplicar una reacción de un usuario sobre un post.
+ */
+public enum ReactionOutcome {
+    CREATED,
+    CHANGED,
+    REMOVED
+}
@@ -0,0 +1,89 @@
+package com.gabeust.forohub.kafka;
+
+import com.gabeust.forohub.dto.NotificationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Consumidor por lotes del topic "forum-notifications".
+ *
+ * Cada lote se agrupa con {@link NotificationCoalescer} y se guarda con una única escritura por lotes en una
+ * transacción; los offsets se confirman después. Si la escritura del lote falla, los eventos se guardan de a uno
+ * y los que vuelven a fallar pasan a la cadena de reintentos ({@link NotificationRetryForwarder}), así un evento
+ * defectuoso no frena al resto de la partición. Los registros que no se pudieron deserializar se publican tal cual
+ * en {@link NotificationProducer#DEAD_LETTER_TOPIC}. Se activa por defecto; con
+ * {@code forohub.notifications.consumer.batch.enabled=false} se usa {@link NotificationConsumer}.
+ *
+ * El rendimiento se observa con las métricas {@code forohub.notifications.consumer.batch} (tiempo por lote),
+ * {@code forohub.notifications.consumer.batch.size} y {@code forohub.notifications.consumer.records}.
+ */
+@Service
+@ConditionalOnExpression("'${forohub.notifications.transport:kafka}' == 'kafka' and ${forohub.notifications.consumer.batch.enabled:true}")
+public class NotificationBatchConsumer {
+
+    private static final LogAccessor LOG = new LogAccessor(NotificationBatchConsumer.class);
+
+    private final NotificationCoalescer coalescer;
+    private final NotificationRetryForwarder retryForwarder;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+    private final Counter records;
+
+    public NotificationBatchConsumer(NotificationCoalescer coalescer,
+                                     NotificationRetryForwarder retryForwarder,
+                                     DeadLetterPublishingRecoverer notificationDeadLetterRecoverer,
+                                     MeterRegistry meterRegistry) {
+        this.coalescer = coalescer;
+        this.retryForwarder = retryForwarder;
+        this.deadLetterRecoverer = notificationDeadLetterRecoverer;
+        this.batchTimer = Timer.builder("forohub.notifications.consumer.batch").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("forohub.notifications.consumer.batch.size").register(meterRegistry);
+        this.records = Counter.builder("forohub.notifications.consumer.records").register(meterRegistry);
+    }
+    /**
+     * Escucha lotes de mensajes en el topic "forum-notifications"
+     * @param records Registros recibidos desde Kafka en un mismo poll
+     */
+    @KafkaListener(topics = "forum-notifications", groupId = "forum-notifications-group",
+            containerFactory = "notificationBatchListenerFactory")
+    public void consume(List<ConsumerRecord<String, NotificationEvent>> records) {
+        List<NotificationEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, NotificationEvent> record : records) {
+            if (record.value() != null) {
+                events.add(record.value());
+                continue;
+            }
+            // ErrorHandlingDeserializer deja el valor en null y el error en un header
+            DeserializationException error = SerializationUtils.getExceptionFromHeader(record,
+                    SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG);
+            if (error != null) {
+                deadLetterRecoverer.accept(record, error);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        batchTimer.record(() -> {
+            try {
+                coalescer.store(events);
+            } catch (RuntimeException e) {
+                retryForwarder.storeEachOrForward(events, e);
+            }
+        });
+        batchSize.record(events.size());
+        records.increment(events.size());
+    }
+}
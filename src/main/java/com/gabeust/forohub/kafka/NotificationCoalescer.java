@@ -0,0 +1,172 @@
+package com.gabeust.forohub.kafka;
+
+import com.gabeust.forohub.dto.NotificationEvent;
+import com.gabeust.forohub.entity.Notification;
+import com.gabeust.forohub.repository.INotificationRepository;
+import com.gabeust.forohub.service.NotificationStreamService;
+import com.gabeust.forohub.service.UnreadNotificationCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Guarda los eventos de notificación agrupándolos por (destinatario, post, tipo) dentro de una ventana de tiempo.
+ *
+ * En lugar de una fila por reacción o comentario, cada grupo tiene una sola notificación con la cantidad de
+ * acciones y los últimos actores ("Ana y 12 personas más reaccionaron a tu post"). Así las escrituras y el
+ * tamaño de la bandeja crecen con la cantidad de posts distintos y no con la de eventos.
+ *
+ * Las filas existentes de los grupos del lote se bloquean antes de combinarlas, así que dos consumidores
+ * no pierden actualizaciones del mismo grupo. Como los eventos se publican con el destinatario como clave,
+ * en la práctica cada grupo lo procesa una sola partición.
+ */
+@Service
+public class NotificationCoalescer {
+
+    private final INotificationRepository notificationRepository;
+    private final NotificationStreamService streamService;
+    private final UnreadNotificationCounter unreadCounter;
+    private final boolean enabled;
+    private final long windowMinutes;
+    private final int maxLatestActors;
+
+    public NotificationCoalescer(INotificationRepository notificationRepository,
+                                 NotificationStreamService streamService,
+                                 UnreadNotificationCounter unreadCounter,
+                                 @Value("${forohub.notifications.coalesce.enabled:true}") boolean enabled,
+                                 @Value("${forohub.notifications.coalesce.window-minutes:1440}") long windowMinutes,
+                                 @Value("${forohub.notifications.coalesce.latest-actors:3}") int maxLatestActors) {
+        this.notificationRepository = notificationRepository;
+        this.streamService = streamService;
+        this.unreadCounter = unreadCounter;
+        this.enabled = enabled;
+        this.windowMinutes = windowMinutes;
+        this.maxLatestActors = maxLatestActors;
+    }
+
+    /**
+     * Combina los eventos con las notificaciones existentes de sus grupos y las guarda en una sola escritura por lotes.
+     * Después del commit, las notificaciones resultantes se publican en el canal push y se ajustan los
+     * contadores de no leídas.
+     *
+     * @param events eventos en el orden en que se recibieron
+     */
+    @Transactional
+    public void store(List<NotificationEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> keys = events.stream().map(event -> groupKey(event, now)).filter(Objects::nonNull).distinct().toList();
+        Map<String, Notification> existing = notificationRepository.lockGroups(keys);
+        Map<String, Notification> groups = new LinkedHashMap<>(existing);
+        Map<String, Notification> touched = new LinkedHashMap<>();
+        List<Notification> ungrouped = new ArrayList<>();
+
+        for (NotificationEvent event : events) {
+            String key = groupKey(event, now);
+            if (key == null) {
+                // Una clave única permite releer la fila recién insertada
+                Notification single = merge(null, event, now);
+                single.setGroupKey(UUID.randomUUID().toString());
+                ungrouped.add(single);
+                continue;
+            }
+            Notification merged = merge(groups.get(key), event, now);
+            merged.setGroupKey(key);
+            groups.put(key, merged);
+            touched.put(key, merged);
+        }
+
+        List<Notification> rows = new ArrayList<>(touched.values());
+        rows.addAll(ungrouped);
+        if (rows.isEmpty()) {
+            return;
+        }
+        notificationRepository.upsertAll(rows);
+
+        // Cada fila nueva, o que estaba leída y vuelve a no leída, suma una al contador del destinatario
+        Map<Long, Long> unreadDeltas = new HashMap<>();
+        for (Notification row : rows) {
+            Notification before = existing.get(row.getGroupKey());
+            if (before == null || before.isRead()) {
+                unreadDeltas.merge(row.getRecipientUserId(), 1L, Long::sum);
+            }
+        }
+        unreadCounter.addAll(unreadDeltas);
+        streamService.publish(notificationRepository.findByGroupKeyIn(
+                rows.stream().map(Notification::getGroupKey).toList()));
+    }
+
+    /**
+     * Suma el evento a la notificación del grupo, o crea una nueva si el grupo todavía no tiene.
+     */
+    private Notification merge(Notification current, NotificationEvent event, LocalDateTime now) {
+        List<String> previous = current == null || current.getLatestActors() == null
+                ? List.of()
+                : Arrays.stream(current.getLatestActors().split(",")).filter(nick -> !nick.isBlank()).toList();
+        // Un actor que ya figura entre los últimos (por ejemplo, quien quita y vuelve a poner su reacción) no suma
+        boolean repeated = event.actorNick() != null && previous.contains(event.actorNick());
+        int count = current == null ? 1 : current.getActorCount() + (repeated ? 0 : 1);
+        List<String> actors = new ArrayList<>();
+        if (event.actorNick() != null) {
+            actors.add(event.actorNick());
+        }
+        previous.stream().filter(nick -> !actors.contains(nick)).forEach(actors::add);
+        List<String> latest = actors.subList(0, Math.min(actors.size(), maxLatestActors));
+
+        Notification notification = new Notification();
+        notification.setRecipientUserId(event.recipientUserId());
+        notification.setType(event.type());
+        notification.setPostId(event.postId());
+        notification.setCommentId(event.commentId());
+        notification.setReactionId(event.reactionId());
+        notification.setCreatedAt(now);
+        notification.setActorCount(count);
+        notification.setLatestActors(latest.isEmpty() ? null : String.join(",", latest));
+        notification.setMessage(message(event, count, latest));
+        return notification;
+    }
+
+    private String message(NotificationEvent event, int count, List<String> actors) {
+        String action = switch (event.type()) {
+            case "REACTION" -> "reacted to your post.";
+            case "COMMENT" -> "commented on your post.";
+            default -> null;
+        };
+        if (action == null || (count == 1 && actors.isEmpty())) {
+            return event.message();
+        }
+        if (actors.isEmpty()) {
+            return count + " people " + action;
+        }
+        if (count == 1) {
+            return actors.get(0) + " " + action;
+        }
+        if (count == 2 && actors.size() == 2) {
+            return actors.get(0) + " and " + actors.get(1) + " " + action;
+        }
+        int others = count - 1;
+        return actors.get(0) + " and " + others + (others == 1 ? " other " : " others ") + action;
+    }
+
+    /**
+     * Clave del grupo al que pertenece el evento, o null si no se agrupa.
+     * La ventana es fija: los eventos de un mismo intervalo de {@code window-minutes} comparten notificación.
+     */
+    private String groupKey(NotificationEvent event, LocalDateTime now) {
+        if (!enabled || event.recipientUserId() == null || event.postId() == null || event.type() == null) {
+            return null;
+        }
+        long window = now.toEpochSecond(ZoneOffset.UTC) / 60 / windowMinutes;
+        return event.recipientUserId() + ":" + event.postId() + ":" + event.type() + ":" + window;
+    }
+}
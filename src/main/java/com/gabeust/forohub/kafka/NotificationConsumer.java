@@ -1,36 +1,38 @@
 package com.gabeust.forohub.kafka;
 
 import com.gabeust.forohub.dto.NotificationEvent;
-import com.gabeust.forohub.entity.Notification;
-import com.gabeust.forohub.repository.INotificationRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
+
+import java.util.List;
 /**
  * Servicio consumidor que escucha eventos Kafka y guarda las notificaciones en la base de datos.
+ * Procesa de a un evento; solo se usa con {@code forohub.notifications.consumer.batch.enabled=false}
+ * (ver {@link NotificationBatchConsumer}).
  */
 @Service
+@ConditionalOnExpression("'${forohub.notifications.transport:kafka}' == 'kafka' and !${forohub.notifications.consumer.batch.enabled:true}")
 public class NotificationConsumer {
 
-    private final INotificationRepository notificationRepository;
+    private final NotificationCoalescer coalescer;
+    private final NotificationRetryForwarder retryForwarder;
 
-    public NotificationConsumer(INotificationRepository notificationRepository) {
-        this.notificationRepository = notificationRepository;
+    public NotificationConsumer(NotificationCoalescer coalescer, NotificationRetryForwarder retryForwarder) {
+        this.coalescer = coalescer;
+        this.retryForwarder = retryForwarder;
     }
     /**
      * Método que escucha mensajes en el topic "forum-notifications"
+     * Si no se puede guardar, se envía a la cadena de reintentos en lugar de reintentarlo en el lugar.
      * @param event Evento recibido desde Kafka
      */
     @KafkaListener(topics = "forum-notifications", groupId = "forum-notifications-group")
     public void consume(NotificationEvent event) {
-        Notification notification = new Notification();
-        notification.setRecipientUserId(event.recipientUserId());
-        notification.setType(event.type());
-        notification.setMessage(event.message());
-        notification.setPostId(event.postId());
-        notification.setCommentId(event.commentId());
-        notification.setReactionId(event.reactionId());
-
-        notificationRepository.save(notification);
-
+        try {
+            coalescer.store(List.of(event));
+        } catch (RuntimeException e) {
+            retryForwarder.storeEachOrForward(List.of(event), e);
+        }
     }
 }
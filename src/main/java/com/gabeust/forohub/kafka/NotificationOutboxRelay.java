@@ -0,0 +1,111 @@
+package com.gabeust.forohub.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabeust.forohub.dto.NotificationEvent;
+import com.gabeust.forohub.entity.NotificationOutbox;
+import com.gabeust.forohub.repository.INotificationOutboxRepository;
+import com.gabeust.forohub.service.NotificationTransport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica por lotes, en el {@link NotificationTransport} configurado (Kafka por defecto), los eventos
+ * registrados en el outbox.
+ *
+ * Cada lote se bloquea con {@code FOR UPDATE SKIP LOCKED}, se envía esperando todas las
+ * confirmaciones y recién entonces se borra, en la misma transacción. Si el envío falla o no se confirma
+ * a tiempo, la transacción se revierte y el lote se reintenta en la siguiente pasada: la entrega es
+ * "al menos una vez". Varios nodos pueden ejecutar el relay a la vez sin publicar el mismo evento en paralelo.
+ */
+@Slf4j
+@Service
+public class NotificationOutboxRelay {
+
+    private final INotificationOutboxRepository outboxRepository;
+    private final NotificationTransport notificationTransport;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final Counter relayed;
+
+    public NotificationOutboxRelay(INotificationOutboxRepository outboxRepository,
+                                   NotificationTransport notificationTransport,
+                                   TransactionTemplate transactionTemplate,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${forohub.notifications.outbox.batch-size:500}") int batchSize,
+                                   @Value("${forohub.notifications.outbox.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.notificationTransport = notificationTransport;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.relayed = Counter.builder("forohub.notifications.outbox.relayed").register(meterRegistry);
+    }
+
+    /**
+     * Vacía el outbox lote a lote hasta que quede vacío o falle un envío.
+     */
+    @Scheduled(fixedDelayString = "${forohub.notifications.outbox.relay-ms:500}")
+    public void relay() {
+        try {
+            int sent;
+            do {
+                Integer count = transactionTemplate.execute(status -> relayBatch());
+                sent = count != null ? count : 0;
+                relayed.increment(sent);
+            } while (sent == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Notification outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<NotificationOutbox> batch = outboxRepository.lockBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (NotificationOutbox entry : batch) {
+            ids.add(entry.getId());
+            NotificationEvent event = deserialize(entry);
+            if (event != null) {
+                sends.add(notificationTransport.sendNotification(event));
+            }
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while relaying notifications", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not publish " + batch.size() + " notifications", e);
+        }
+        outboxRepository.deleteByIds(ids);
+        return batch.size();
+    }
+
+    private NotificationEvent deserialize(NotificationOutbox entry) {
+        try {
+            return objectMapper.readValue(entry.getPayload(), NotificationEvent.class);
+        } catch (JsonProcessingException e) {
+            // Un payload ilegible nunca se podrá publicar: se descarta para no bloquear el outbox
+            log.error("Discarding unreadable outbox entry {}: {}", entry.getId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.gabeust.forohub.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabeust.forohub.dto.NotificationEvent;
+import com.gabeust.forohub.entity.NotificationOutbox;
+import com.gabeust.forohub.repository.INotificationOutboxRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Registra eventos de notificación en el outbox, dentro de la transacción en curso.
+ *
+ * Reemplaza el envío directo a Kafka desde los servicios: la petición ya no espera al broker ni retiene
+ * la conexión a la base mientras tanto, y si la transacción se revierte el evento nunca se publica.
+ * {@link NotificationOutboxRelay} se encarga de publicarlos.
+ */
+@Service
+public class NotificationOutboxWriter {
+
+    private final INotificationOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public NotificationOutboxWriter(INotificationOutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Guarda el evento para publicarlo después del commit.
+     * @param event Evento de notificación a enviar.
+     */
+    public void enqueue(NotificationEvent event) {
+        NotificationOutbox entry = new NotificationOutbox();
+        try {
+            entry.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize notification event", e);
+        }
+        outboxRepository.save(entry);
+    }
+}
@@ -1,28 +1,50 @@
 package com.gabeust.forohub.kafka;
 
 import com.gabeust.forohub.dto.NotificationEvent;
+import com.gabeust.forohub.service.NotificationTransport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
- * Servicio para enviar eventos de notificación a Kafka.
+ * Servicio para enviar eventos de notificación a Kafka. Es el transporte por defecto.
  */
 @Service
-public class NotificationProducer {
+@ConditionalOnProperty(name = "forohub.notifications.transport", havingValue = "kafka", matchIfMissing = true)
+public class NotificationProducer implements NotificationTransport {
 
     private final KafkaTemplate<String, NotificationEvent> kafkaTemplate;
     // Nombre del topic Kafka donde se publican los eventos
     private static final String TOPIC = "forum-notifications";
+    // Topic de entrada de la cadena de reintentos (ver NotificationRetryConsumer)
+    public static final String FAILED_TOPIC = "forum-notifications-failed";
+    // Dead letters de registros que no se pudieron deserializar (ver KafkaConfig)
+    public static final String DEAD_LETTER_TOPIC = "forum-notifications-dlt";
 
     public NotificationProducer(KafkaTemplate<String, NotificationEvent> kafkaTemplate) {
         this.kafkaTemplate = kafkaTemplate;
     }
     /**
      * Envía el evento de notificación al topic Kafka.
+     * Se usa el destinatario como clave para que sus notificaciones conserven el orden.
      * @param event Evento de notificación a enviar.
+     * @return futuro que se completa cuando el broker confirma el envío
      */
-    public void sendNotification(NotificationEvent event) {
-        kafkaTemplate.send(TOPIC, event);
+    @Override
+    public CompletableFuture<SendResult<String, NotificationEvent>> sendNotification(NotificationEvent event) {
+        String key = event.recipientUserId() != null ? event.recipientUserId().toString() : null;
+        return kafkaTemplate.send(TOPIC, key, event);
+    }
+    /**
+     * Envía un evento que no se pudo guardar a la cadena de reintentos, sin bloquear la partición original.
+     * @param event Evento de notificación que falló.
+     * @return futuro que se completa cuando el broker confirma el envío
+     */
+    public CompletableFuture<SendResult<String, NotificationEvent>> sendForRetry(NotificationEvent event) {
+        String key = event.recipientUserId() != null ? event.recipientUserId().toString() : null;
+        return kafkaTemplate.send(FAILED_TOPIC, key, event);
     }
 }
-
@@ -0,0 +1,88 @@
+package com.gabeust.forohub.kafka;
+
+import com.gabeust.forohub.dto.NotificationEvent;
+import com.gabeust.forohub.service.NotificationDeadLetterService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Reintentos no bloqueantes de las notificaciones que no se pudieron guardar.
+ *
+ * Escucha {@link NotificationProducer#FAILED_TOPIC} y, si vuelve a fallar, el evento pasa por una cadena de
+ * topics {@code -retry-N} con espera exponencial ({@code forohub.notifications.retry.*}); mientras espera no
+ * frena a ningún otro evento. Agotados los intentos llega a {@code forum-notifications-failed-dlt} y se guarda
+ * como dead letter para reenviarlo a mano desde {@code POST /api/v1/notifications/dead-letters/replay}.
+ *
+ * Un evento reintentado puede guardarse después de otros más nuevos del mismo destinatario; para notificaciones
+ * no importa, porque cada una lleva su propia fecha.
+ *
+ * Cada intento se cuenta en {@code forohub.notifications.retries}, con el topic como etiqueta.
+ */
+@Service
+@ConditionalOnProperty(name = "forohub.notifications.transport", havingValue = "kafka", matchIfMissing = true)
+public class NotificationRetryConsumer {
+
+    private final NotificationCoalescer coalescer;
+    private final NotificationDeadLetterService deadLetterService;
+    private final MeterRegistry meterRegistry;
+
+    public NotificationRetryConsumer(NotificationCoalescer coalescer,
+                                     NotificationDeadLetterService deadLetterService,
+                                     MeterRegistry meterRegistry) {
+        this.coalescer = coalescer;
+        this.deadLetterService = deadLetterService;
+        this.meterRegistry = meterRegistry;
+    }
+    /**
+     * Reintenta guardar un evento; si falla, el error lo envía al siguiente topic de reintento.
+     * @param record Evento que falló en el consumidor principal o en un intento anterior
+     */
+    @RetryableTopic(
+            attempts = "${forohub.notifications.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${forohub.notifications.retry.delay-ms:1000}",
+                    multiplier = 2,
+                    maxDelayExpression = "${forohub.notifications.retry.max-delay-ms:60000}"),
+            kafkaTemplate = "kafkaTemplate",
+            autoCreateTopics = "${forohub.notifications.retry.auto-create-topics:true}")
+    @KafkaListener(topics = NotificationProducer.FAILED_TOPIC, groupId = "forum-notifications-retry-group")
+    public void retry(ConsumerRecord<String, NotificationEvent> record) {
+        Counter.builder("forohub.notifications.retries").tag("topic", record.topic()).register(meterRegistry).increment();
+        coalescer.store(List.of(record.value()));
+    }
+    /**
+     * Guarda como dead letter el evento que agotó los reintentos.
+     * @param record Registro recibido en el topic de dead letters de la cadena de reintentos
+     */
+    @DltHandler
+    public void deadLetter(ConsumerRecord<String, NotificationEvent> record) {
+        deadLetterService.record(record.value(), record.topic(), header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+    }
+    /**
+     * Guarda como dead letter, sin interpretarlo, un registro que los consumidores principales no pudieron
+     * procesar (por ejemplo, porque no se pudo deserializar). Reenviarlo solo funciona si es un evento válido.
+     * @param record Registro recibido en el topic de dead letters, como texto
+     */
+    @KafkaListener(topics = NotificationProducer.DEAD_LETTER_TOPIC, groupId = "forum-notifications-dlt-group",
+            properties = "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer")
+    public void unreadable(ConsumerRecord<String, String> record) {
+        deadLetterService.recordRaw(record.value(), header(record, KafkaHeaders.DLT_ORIGINAL_TOPIC),
+                header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,78 @@
+package com.gabeust.forohub.kafka;
+
+import com.gabeust.forohub.dto.NotificationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Aísla los eventos que no se pueden guardar para que no bloqueen la partición donde llegaron.
+ *
+ * Cada evento se guarda por separado; los que vuelven a fallar se envían a
+ * {@link NotificationProducer#FAILED_TOPIC}, donde {@link NotificationRetryConsumer} los reintenta con
+ * espera creciente. Se espera la confirmación del broker antes de volver, así el offset original solo se
+ * confirma cuando el evento ya está a salvo en la cadena de reintentos.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "forohub.notifications.transport", havingValue = "kafka", matchIfMissing = true)
+public class NotificationRetryForwarder {
+
+    private final NotificationCoalescer coalescer;
+    private final NotificationProducer producer;
+    private final Counter forwarded;
+    private final long sendTimeoutMs;
+
+    public NotificationRetryForwarder(NotificationCoalescer coalescer,
+                                      NotificationProducer producer,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${forohub.notifications.retry.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.coalescer = coalescer;
+        this.producer = producer;
+        this.forwarded = Counter.builder("forohub.notifications.retry.forwarded").register(meterRegistry);
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /**
+     * Guarda los eventos de a uno y envía a la cadena de reintentos los que fallen.
+     *
+     * @param events eventos de un lote (o un registro) cuya escritura falló
+     * @param cause  error de la escritura original, solo para el log
+     * @throws IllegalStateException si no se pudieron enviar a la cadena de reintentos; en ese caso el
+     *                               contenedor vuelve a entregar el lote
+     */
+    public void storeEachOrForward(List<NotificationEvent> events, RuntimeException cause) {
+        log.warn("Storing {} notification event(s) one by one after failure: {}", events.size(), cause.getMessage());
+        List<CompletableFuture<?>> sends = new ArrayList<>();
+        for (NotificationEvent event : events) {
+            try {
+                coalescer.store(List.of(event));
+            } catch (RuntimeException e) {
+                log.warn("Forwarding notification for user {} to retry topic: {}", event.recipientUserId(), e.getMessage());
+                sends.add(producer.sendForRetry(event));
+            }
+        }
+        if (sends.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while forwarding notifications to retry topic", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not forward notifications to retry topic", e);
+        }
+        forwarded.increment(sends.size());
+    }
+}
@@ -0,0 +1,11 @@
+package com.gabeust.forohub.mapper;
+
+import com.gabeust.forohub.dto.NotificationDTO;
+import com.gabeust.forohub.entity.Notification;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface NotificationMapper {
+
+    NotificationDTO toDTO(Notification notification);
+}
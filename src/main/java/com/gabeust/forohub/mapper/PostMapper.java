@@ -21,5 +21,6 @@ public interface PostMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "comments", ignore = true)
     @Mapping(target = "reactions", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
     Post toEntity(PostDTO postDTO);
 }
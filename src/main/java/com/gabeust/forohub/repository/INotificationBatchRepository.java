@@ -0,0 +1,30 @@
+package com.gabeust.forohub.repository;
+
+import com.gabeust.forohub.entity.Notification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escrituras de notificaciones que necesitan acceso directo a JDBC.
+ */
+public interface INotificationBatchRepository {
+
+    /**
+     * Lee y bloquea hasta el final de la transacción las notificaciones agrupadas con las claves indicadas.
+     *
+     * @param groupKeys claves de agrupación
+     * @return notificaciones existentes por clave (solo con los campos de agrupación y el estado de lectura)
+     */
+    Map<String, Notification> lockGroups(Collection<String> groupKeys);
+
+    /**
+     * Inserta o actualiza todas las notificaciones en una sola sentencia por lotes, sin pasar por el contexto
+     * de persistencia. Una notificación cuya clave de agrupación ya existe reemplaza los datos de la fila
+     * existente y la vuelve a marcar como no leída.
+     *
+     * @param notifications notificaciones a guardar
+     */
+    void upsertAll(List<Notification> notifications);
+}
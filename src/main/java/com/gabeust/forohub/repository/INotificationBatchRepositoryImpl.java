@@ -0,0 +1,68 @@
+package com.gabeust.forohub.repository;
+
+import com.gabeust.forohub.entity.Notification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación con JDBC, que participa de la transacción en curso.
+ * Con IDENTITY Hibernate no puede agrupar inserts; JDBC sí, y con {@code rewriteBatchedStatements}
+ * el driver de MySQL los envía como un único INSERT de varias filas.
+ */
+public class INotificationBatchRepositoryImpl implements INotificationBatchRepository {
+
+    private static final String LOCK_GROUPS =
+            "SELECT group_key, actor_count, latest_actors, is_read FROM notifications WHERE group_key IN (:groupKeys) FOR UPDATE";
+    private static final String UPSERT =
+            "INSERT INTO notifications (recipient_user_id, type, message, post_id, comment_id, reaction_id, is_read, " +
+            "created_at, actor_count, latest_actors, group_key) VALUES (?, ?, ?, ?, ?, ?, FALSE, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE message = VALUES(message), comment_id = VALUES(comment_id), " +
+            "reaction_id = VALUES(reaction_id), is_read = FALSE, created_at = VALUES(created_at), " +
+            "actor_count = VALUES(actor_count), latest_actors = VALUES(latest_actors)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public INotificationBatchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<String, Notification> lockGroups(Collection<String> groupKeys) {
+        Map<String, Notification> groups = new HashMap<>();
+        if (groupKeys.isEmpty()) {
+            return groups;
+        }
+        jdbcTemplate.query(LOCK_GROUPS, new MapSqlParameterSource("groupKeys", groupKeys), rs -> {
+            Notification notification = new Notification();
+            notification.setGroupKey(rs.getString("group_key"));
+            notification.setActorCount(rs.getInt("actor_count"));
+            notification.setLatestActors(rs.getString("latest_actors"));
+            notification.setRead(rs.getBoolean("is_read"));
+            groups.put(notification.getGroupKey(), notification);
+        });
+        return groups;
+    }
+
+    @Override
+    public void upsertAll(List<Notification> notifications) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPSERT, notifications, notifications.size(), (statement, n) -> {
+            statement.setObject(1, n.getRecipientUserId(), Types.BIGINT);
+            statement.setString(2, n.getType());
+            statement.setString(3, n.getMessage());
+            statement.setObject(4, n.getPostId(), Types.BIGINT);
+            statement.setObject(5, n.getCommentId(), Types.BIGINT);
+            statement.setObject(6, n.getReactionId(), Types.BIGINT);
+            statement.setTimestamp(7, Timestamp.valueOf(n.getCreatedAt()));
+            statement.setInt(8, n.getActorCount());
+            statement.setString(9, n.getLatestActors());
+            statement.setString(10, n.getGroupKey());
+        });
+    }
+}
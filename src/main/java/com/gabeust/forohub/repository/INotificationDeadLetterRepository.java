@@ -0,0 +1,25 @@
+package com.gabeust.forohub.repository;
+
+import com.gabeust.forohub.entity.NotificationDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface INotificationDeadLetterRepository extends JpaRepository<NotificationDeadLetter, Long> {
+
+    /**
+     * Bloquea los dead letters más antiguos hasta el final de la transacción, salteando los ya bloqueados.
+     */
+    @Query(value = "SELECT * FROM notification_dead_letter ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationDeadLetter> lockBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM NotificationDeadLetter d WHERE d.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,26 @@
+package com.gabeust.forohub.repository;
+
+import com.gabeust.forohub.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface INotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Bloquea los eventos más antiguos del outbox hasta el final de la transacción.
+     * Las filas ya bloqueadas por otro nodo se saltean, así varios relays pueden trabajar a la vez.
+     */
+    @Query(value = "SELECT * FROM notification_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> lockBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,11 +1,98 @@
 package com.gabeust.forohub.repository;
 
+import com.gabeust.forohub.dto.NotificationDTO;
+import com.gabeust.forohub.dto.UnreadCountDTO;
 import com.gabeust.forohub.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 @Repository
-public interface INotificationRepository extends JpaRepository<Notification, Long> {
+public interface INotificationRepository extends JpaRepository<Notification, Long>, INotificationBatchRepository {
+    String DTO_SELECT = "SELECT new com.gabeust.forohub.dto.NotificationDTO(n.id, n.type, n.message, n.postId, n.commentId, " +
+            "n.reactionId, n.actorCount, n.latestActors, n.isRead, n.createdAt) FROM Notification n ";
+
     List<Notification> findByRecipientUserIdOrderByCreatedAtDesc(Long recipientUserId);
+    @Query(DTO_SELECT + "WHERE n.recipientUserId = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDTO> findInboxFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE n.recipientUserId = :userId " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDTO> findInboxPageBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id, Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE n.recipientUserId = :userId AND n.isRead = false ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDTO> findUnreadFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE n.recipientUserId = :userId AND n.isRead = false " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDTO> findUnreadPageBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id, Pageable pageable);
+
+    List<Notification> findByGroupKeyIn(Collection<String> groupKeys);
+    long countByRecipientUserIdAndIsReadFalse(Long recipientUserId);
+
+    @Query("SELECT new com.gabeust.forohub.dto.UnreadCountDTO(n.recipientUserId, COUNT(n)) FROM Notification n " +
+            "WHERE n.isRead = false AND n.recipientUserId IN :userIds GROUP BY n.recipientUserId")
+    List<UnreadCountDTO> countUnreadByRecipients(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Marca la notificación como leída solo si todavía no lo estaba.
+     *
+     * @return 1 si cambió, 0 si ya estaba leída o no existe
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markReadIfUnread(@Param("id") Long id);
+
+    /**
+     * Marca como leídas, en una sola sentencia, las notificaciones indicadas que pertenecen al usuario.
+     *
+     * @return cantidad de notificaciones que estaban sin leer
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true " +
+            "WHERE n.recipientUserId = :userId AND n.id IN :ids AND n.isRead = false")
+    int markReadByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Marca como leídas, en una sola sentencia, todas las notificaciones no leídas del usuario.
+     *
+     * @return cantidad de notificaciones que estaban sin leer
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipientUserId = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    /**
+     * IDs de notificaciones leídas anteriores a {@code cutoff}, recorriendo la clave primaria desde {@code lastId}.
+     */
+    @Query("SELECT n.id FROM Notification n WHERE n.id > :lastId AND n.isRead = true AND n.createdAt < :cutoff ORDER BY n.id")
+    List<Long> findPurgeableIdsAfter(@Param("lastId") Long lastId, @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Borra las notificaciones indicadas que sigan leídas y sean anteriores a {@code cutoff}. Una notificación
+     * agrupada que recibió una acción nueva después de seleccionarse vuelve a no leída y no se borra.
+     */
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids AND n.isRead = true AND n.createdAt < :cutoff")
+    int deleteReadByIds(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Notificaciones del usuario creadas o actualizadas después de la posición (createdAt, id), de la más vieja
+     * a la más nueva. Una notificación agrupada que recibe una acción nueva avanza su createdAt y vuelve a aparecer.
+     */
+    @Query("SELECT n FROM Notification n WHERE n.recipientUserId = :userId " +
+            "AND (n.createdAt > :createdAt OR (n.createdAt = :createdAt AND n.id > :id)) " +
+            "ORDER BY n.createdAt, n.id")
+    List<Notification> findChangedSince(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,49 @@
+package com.gabeust.forohub.repository;
+
+import com.gabeust.forohub.entity.PostReactionCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IPostReactionCounterRepository extends JpaRepository<PostReactionCounter, Long> {
+    List<PostReactionCounter> findByPostIdIn(Collection<Long> postIds);
+
+    /**
+     * Suma {@code delta} al contador del post y tipo indicados en una sola sentencia,
+     * creando la fila si todavía no existe. Nunca deja el contador por debajo de 0.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO post_reaction_counter (post_id, reaction_type, total) " +
+            "VALUES (:postId, :reactionType, GREATEST(:delta, 0)) " +
+            "ON DUPLICATE KEY UPDATE total = GREATEST(total + :delta, 0)", nativeQuery = true)
+    void increment(@Param("postId") Long postId, @Param("reactionType") String reactionType, @Param("delta") long delta);
+
+    /**
+     * Pasa una reacción del tipo {@code from} al tipo {@code to} en una sola sentencia:
+     * resta 1 al primero (sin bajar de 0) y suma 1 al segundo, creando las filas que falten.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO post_reaction_counter (post_id, reaction_type, total) " +
+            "VALUES (:postId, :from, 0), (:postId, :to, 1) " +
+            "ON DUPLICATE KEY UPDATE total = GREATEST(total + IF(reaction_type = :to, 1, -1), 0)", nativeQuery = true)
+    void move(@Param("postId") Long postId, @Param("from") String from, @Param("to") String to);
+
+    /**
+     * Fija el valor absoluto del contador del post y tipo indicados, creando la fila si no existe.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO post_reaction_counter (post_id, reaction_type, total) " +
+            "VALUES (:postId, :reactionType, :total) " +
+            "ON DUPLICATE KEY UPDATE total = :total", nativeQuery = true)
+    void setTotal(@Param("postId") Long postId, @Param("reactionType") String reactionType, @Param("total") long total);
+
+    @Modifying
+    @Query("DELETE FROM PostReactionCounter c WHERE c.postId = :postId")
+    void deleteByPostId(@Param("postId") Long postId);
+}
@@ -1,17 +1,88 @@
 package com.gabeust.forohub.repository;
 
+import com.gabeust.forohub.dto.PostCardDTO;
+import com.gabeust.forohub.dto.PostSearchDocDTO;
 import com.gabeust.forohub.entity.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface IPostRepository extends JpaRepository<Post, Long> {
-    List<Post> findByCategoryId(Long categoryId);
+    String CARD_SELECT = "SELECT new com.gabeust.forohub.dto.PostCardDTO(" +
+            "p.id, p.title, p.content, pr.nick, a.id, pr.image, c.name, p.createdAt) " +
+            "FROM Post p JOIN p.author a LEFT JOIN a.profile pr LEFT JOIN p.category c ";
+
     int countByAuthorId(Long userId);
-    Page<Post> findByCategoryId(Long categoryId, Pageable pageable);
-    List<Post> findByAuthorId(Long authorId);
+    long countByCategoryId(Long categoryId);
+    @Query("SELECT p.commentCount FROM Post p WHERE p.id = :postId")
+    Optional<Long> findCommentCountById(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta WHERE p.id = :postId")
+    int incrementCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "UPDATE post p SET p.comment_count = " +
+            "(SELECT COUNT(*) FROM comment c WHERE c.post_id = p.id) " +
+            "WHERE p.id BETWEEN :fromId AND :toId " +
+            "AND p.comment_count <> (SELECT COUNT(*) FROM comment c WHERE c.post_id = p.id)", nativeQuery = true)
+    int recountComments(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id > :lastId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.gabeust.forohub.dto.PostSearchDocDTO(p.id, p.title, p.content, c.id) " +
+            "FROM Post p LEFT JOIN p.category c WHERE p.id BETWEEN :fromId AND :toId")
+    List<PostSearchDocDTO> findSearchDocsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query(value = CARD_SELECT, countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<PostCardDTO> findCards(Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE p.category.id = :categoryId",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.category.id = :categoryId")
+    Page<PostCardDTO> findCardsByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(CARD_SELECT)
+    Slice<PostCardDTO> findCardSlice(Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.category.id = :categoryId")
+    Slice<PostCardDTO> findCardSliceByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.id = :id")
+    Optional<PostCardDTO> findCardById(@Param("id") Long id);
+
+    @Query(CARD_SELECT + "WHERE p.id IN :ids")
+    List<PostCardDTO> findCardsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(CARD_SELECT + "WHERE p.category.id = :categoryId")
+    List<PostCardDTO> findCardsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query(CARD_SELECT + "WHERE a.id = :authorId")
+    List<PostCardDTO> findCardsByAuthorId(@Param("authorId") Long authorId);
+
+    @Query(CARD_SELECT + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostCardDTO> findFirstKeysetPage(Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostCardDTO> findKeysetPageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.category.id = :categoryId ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostCardDTO> findFirstKeysetPageByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.category.id = :categoryId " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostCardDTO> findKeysetPageBeforeByCategoryId(@Param("categoryId") Long categoryId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 }
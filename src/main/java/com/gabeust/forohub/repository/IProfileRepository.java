@@ -1,9 +1,11 @@
 package com.gabeust.forohub.repository;
 
+import com.gabeust.forohub.dto.ProfileDTO;
 import com.gabeust.forohub.entity.Profile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -14,4 +16,8 @@ public interface IProfileRepository extends JpaRepository<Profile, Long> {
     @Query("DELETE FROM Profile p WHERE p.user.id = :userId")
     void deleteByUser_Id(Long userId);
 
+    @Query("SELECT new com.gabeust.forohub.dto.ProfileDTO(pr.nick, pr.image, pr.bio, pr.createdAt, a.id) " +
+            "FROM Post p JOIN p.author a JOIN a.profile pr WHERE p.id = :postId")
+    Optional<ProfileDTO> findAuthorProfileByPostId(@Param("postId") Long postId);
+
 }
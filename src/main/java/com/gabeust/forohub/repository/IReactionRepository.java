@@ -1,17 +1,71 @@
 package com.gabeust.forohub.repository;
 
+import com.gabeust.forohub.dto.PostReactionTypeDTO;
+import com.gabeust.forohub.dto.ReactionCountDTO;
+import com.gabeust.forohub.dto.ReactionDTO;
+import com.gabeust.forohub.dto.ReactionStateDTO;
 import com.gabeust.forohub.entity.Reaction;
 import com.gabeust.forohub.enums.ReactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface IReactionRepository extends JpaRepository<Reaction, Long> {
+public interface IReactionRepository extends JpaRepository<Reaction, Long>, IReactionUpsertRepository {
     long countByPostIdAndReactionType(Long postId, ReactionType reactionType);
     boolean existsByUserIdAndPostIdAndReactionType(Long userId, Long postId, ReactionType reactionType);
     Optional<Reaction> findByUserIdAndPostId(Long userId, Long postId);
     int countByUserId(Long userId);
 
+    @Query("SELECT new com.gabeust.forohub.dto.ReactionStateDTO(p.id, p.author.id, c.id, r.id, r.reactionType) " +
+            "FROM Post p LEFT JOIN p.category c " +
+            "LEFT JOIN Reaction r ON r.post.id = p.id AND r.user.id = :userId " +
+            "WHERE p.id = :postId")
+    Optional<ReactionStateDTO> findState(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    /**
+     * Borra la reacción solo si sigue teniendo el tipo indicado.
+     *
+     * @return 1 si se borró, 0 si otra petición la cambió o borró antes
+     */
+    @Modifying
+    @Query("DELETE FROM Reaction r WHERE r.id = :id AND r.reactionType = :type")
+    int deleteIfType(@Param("id") Long id, @Param("type") ReactionType type);
+
+    /**
+     * Cambia el tipo de la reacción solo si sigue teniendo el tipo {@code from}.
+     *
+     * @return 1 si se cambió, 0 si otra petición la cambió o borró antes
+     */
+    @Modifying
+    @Query("UPDATE Reaction r SET r.reactionType = :to WHERE r.id = :id AND r.reactionType = :from")
+    int changeType(@Param("id") Long id, @Param("from") ReactionType from, @Param("to") ReactionType to);
+
+    // Integer.MIN_VALUE hace que el driver de MySQL entregue las filas de a una, sin cargar el resultado completo
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.gabeust.forohub.dto.ReactionDTO(r.id, r.reactionType, pr.nick, r.post.id) " +
+            "FROM Reaction r JOIN r.user u LEFT JOIN u.profile pr ORDER BY r.id")
+    Stream<ReactionDTO> streamAll();
+
+    @Query("SELECT new com.gabeust.forohub.dto.ReactionCountDTO(r.post.id, r.reactionType, COUNT(r)) " +
+            "FROM Reaction r WHERE r.post.id IN :postIds GROUP BY r.post.id, r.reactionType")
+    List<ReactionCountDTO> countGroupedByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    @Query("SELECT new com.gabeust.forohub.dto.PostReactionTypeDTO(r.post.id, r.reactionType) " +
+            "FROM Reaction r WHERE r.user.id = :userId AND r.post.id IN :postIds")
+    List<PostReactionTypeDTO> findTypesByUserIdAndPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
 }
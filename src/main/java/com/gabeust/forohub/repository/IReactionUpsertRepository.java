@@ -0,0 +1,20 @@
+package com.gabeust.forohub.repository;
+
+import com.gabeust.forohub.enums.ReactionType;
+
+import java.util.Optional;
+
+/**
+ * Escrituras de reacciones que necesitan acceso directo a JDBC.
+ */
+public interface IReactionUpsertRepository {
+
+    /**
+     * Inserta la reacción solo si el usuario todavía no reaccionó al post, en una única sentencia
+     * ({@code INSERT IGNORE} sobre la restricción única). Si dos pedidos compiten, el segundo espera el bloqueo
+     * de la clave y, cuando el primero confirma, no inserta nada.
+     *
+     * @return ID de la reacción creada, o vacío si ya existía una
+     */
+    Optional<Long> insertIfAbsent(Long userId, Long postId, ReactionType reactionType);
+}
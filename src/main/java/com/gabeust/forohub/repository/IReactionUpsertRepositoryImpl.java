@@ -0,0 +1,45 @@
+package com.gabeust.forohub.repository;
+
+import com.gabeust.forohub.enums.ReactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Optional;
+
+/**
+ * Implementación con {@link JdbcTemplate}, que participa de la transacción JPA en curso.
+ * Se usa JDBC para obtener el ID generado en el mismo viaje que el insert.
+ */
+public class IReactionUpsertRepositoryImpl implements IReactionUpsertRepository {
+
+    // INSERT IGNORE devuelve 0 filas ante la clave duplicada. Con ON DUPLICATE KEY UPDATE el conteo depende
+    // de useAffectedRows: Connector/J por defecto informa filas encontradas, y un duplicado también cuenta 1
+    private static final String INSERT_IF_ABSENT =
+            "INSERT IGNORE INTO reaction (user_id, post_id, reaction_type) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IReactionUpsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<Long> insertIfAbsent(Long userId, Long postId, ReactionType reactionType) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int inserted = jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_IF_ABSENT, Statement.RETURN_GENERATED_KEYS);
+            statement.setLong(1, userId);
+            statement.setLong(2, postId);
+            statement.setString(3, reactionType.name());
+            return statement;
+        }, keyHolder);
+        // 1 = fila insertada; 0 = ya existía una reacción del usuario en el post
+        if (inserted != 1 || keyHolder.getKey() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(keyHolder.getKey().longValue());
+    }
+}
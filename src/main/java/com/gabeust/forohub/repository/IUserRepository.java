@@ -1,14 +1,36 @@
 package com.gabeust.forohub.repository;
 
+import com.gabeust.forohub.dto.AuthorRefDTO;
+import com.gabeust.forohub.dto.UserSummaryDTO;
 import com.gabeust.forohub.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface IUserRepository extends JpaRepository<User, Long> {
     User findUserByEmail (String email);
     boolean existsByEmail(String email);
-    Optional<User> findByProfile_Nick(String nick);}
+    Optional<User> findByProfile_Nick(String nick);
+    @Query("SELECT new com.gabeust.forohub.dto.AuthorRefDTO(u.id, pr.nick, pr.image) FROM User u JOIN u.profile pr WHERE pr.nick = :nick")
+    Optional<AuthorRefDTO> findAuthorRefByNick(@Param("nick") String nick);
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    // Integer.MIN_VALUE hace que el driver de MySQL entregue las filas de a una, sin cargar el resultado completo
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.gabeust.forohub.dto.UserSummaryDTO(u.id, u.email, pr.nick, u.enable) " +
+            "FROM User u LEFT JOIN u.profile pr ORDER BY u.id")
+    Stream<UserSummaryDTO> streamAll();
+}
 
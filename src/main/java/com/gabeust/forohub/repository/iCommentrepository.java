@@ -1,14 +1,44 @@
 package com.gabeust.forohub.repository;
 
+import com.gabeust.forohub.dto.CommentDTO;
 import com.gabeust.forohub.entity.Comment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface iCommentrepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByPost_IdOrderByCreatedAtDesc(Long postId);
+    String DTO_SELECT = "SELECT new com.gabeust.forohub.dto.CommentDTO(c.id, c.content, c.createdAt, pr.nick, c.post.id) " +
+            "FROM Comment c JOIN c.author a LEFT JOIN a.profile pr ";
+
     int countByAuthorId(Long userId);
 
+    // Integer.MIN_VALUE hace que el driver de MySQL entregue las filas de a una, sin cargar el resultado completo
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(DTO_SELECT + "ORDER BY c.id")
+    Stream<CommentDTO> streamAll();
+
+    @Query(DTO_SELECT + "WHERE c.post.id = :postId ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentDTO> findAllByPostId(@Param("postId") Long postId);
+
+    @Query(DTO_SELECT + "WHERE c.post.id = :postId ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentDTO> findFirstPageByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE c.post.id = :postId " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentDTO> findPageByPostIdBefore(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
 }
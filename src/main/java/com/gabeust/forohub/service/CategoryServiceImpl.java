@@ -21,10 +21,12 @@ public class CategoryServiceImpl implements ICategoriaService {
 
     private final ICategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final LookupCache lookupCache;
 
-    public CategoryServiceImpl(ICategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+    public CategoryServiceImpl(ICategoryRepository categoryRepository, CategoryMapper categoryMapper, LookupCache lookupCache) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
+        this.lookupCache = lookupCache;
     }
 
 
@@ -71,6 +73,7 @@ public class CategoryServiceImpl implements ICategoriaService {
     public CategoryDTO save(CategoryDTO categoryDTO) {
         Category category = categoryMapper.toEntity(categoryDTO);
         Category saved = categoryRepository.save(category);
+        lookupCache.invalidateCategories();
 
         return categoryMapper.toDTO(saved);
     }
@@ -82,5 +85,6 @@ public class CategoryServiceImpl implements ICategoriaService {
     @Override
     public void deletebyId(Long id) {
         categoryRepository.deleteById(id);
+        lookupCache.invalidateCategories();
     }
 }
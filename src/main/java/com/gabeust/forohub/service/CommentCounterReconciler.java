@@ -0,0 +1,63 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.repository.IPostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Tarea periódica que corrige el contador de comentarios de cada post a partir de las filas de {@code Comment}.
+ *
+ * La primera ejecución también completa el contador de los posts creados antes de que existiera la columna.
+ * Recorre los posts en bloques ordenados por ID y solo reescribe los que no coinciden.
+ */
+@Slf4j
+@Service
+public class CommentCounterReconciler {
+
+    private final IPostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public CommentCounterReconciler(IPostRepository postRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${forohub.comment-counters.reconcile.chunk-size:500}") int chunkSize) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Recorre todos los posts y corrige los contadores desviados.
+     *
+     * @return cantidad de posts corregidos
+     */
+    @Scheduled(initialDelayString = "${forohub.comment-counters.reconcile.initial-delay-ms:60000}",
+            fixedDelayString = "${forohub.comment-counters.reconcile.interval-ms:3600000}")
+    public int reconcile() {
+        int fixed = 0;
+        long lastId = 0L;
+        List<Long> postIds;
+        do {
+            postIds = postRepository.findIdsAfter(lastId, PageRequest.of(0, chunkSize));
+            if (postIds.isEmpty()) {
+                break;
+            }
+            Long fromId = postIds.get(0);
+            Long toId = postIds.get(postIds.size() - 1);
+            Integer count = transactionTemplate.execute(status -> postRepository.recountComments(fromId, toId));
+            fixed += count != null ? count : 0;
+            lastId = toId;
+        } while (postIds.size() == chunkSize);
+
+        if (fixed > 0) {
+            log.warn("Comment counters reconciled: {} posts fixed", fixed);
+        }
+        return fixed;
+    }
+}
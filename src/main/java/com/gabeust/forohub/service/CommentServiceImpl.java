@@ -1,29 +1,34 @@
 package com.gabeust.forohub.service;
 
+import com.gabeust.forohub.dto.AuthorRefDTO;
 import com.gabeust.forohub.dto.CommentDTO;
+import com.gabeust.forohub.dto.CursorPageDTO;
 import com.gabeust.forohub.dto.NotificationEvent;
 import com.gabeust.forohub.entity.Comment;
 import com.gabeust.forohub.entity.Post;
-import com.gabeust.forohub.entity.User;
-import com.gabeust.forohub.kafka.NotificationProducer;
+import com.gabeust.forohub.kafka.NotificationOutboxWriter;
 import com.gabeust.forohub.mapper.CommentMapper;
 import com.gabeust.forohub.repository.IPostRepository;
 import com.gabeust.forohub.repository.IUserRepository;
 import com.gabeust.forohub.repository.iCommentrepository;
 import com.gabeust.forohub.service.interf.ICommentService;
+import com.gabeust.forohub.util.CursorUtils;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 /**
  * Servicio para manejar la lógica de negocio relacionada con los comentarios (Comment).
  *
  * Proporciona métodos para crear, buscar y eliminar comentarios,
  * así como obtenerlos por post.
  *
- * Integra con Kafka para producir eventos de notificación cuando se crea un comentario.
+ * Registra eventos de notificación en el outbox (publicados luego en Kafka) cuando se crea un comentario.
  */
 @Service
 public class CommentServiceImpl implements ICommentService {
@@ -31,14 +36,18 @@ public class CommentServiceImpl implements ICommentService {
     private final CommentMapper commentMapper;
     private final IPostRepository postRepository;
     private final IUserRepository userRepository;
-    private final NotificationProducer notificationProducer;
+    private final NotificationOutboxWriter notificationOutbox;
+    private final LookupCache lookupCache;
+    private final HotScoreService hotScores;
 
-    public CommentServiceImpl(iCommentrepository commnetRepository, CommentMapper commentMapper, IPostRepository postRepository, IUserRepository userRepository, NotificationProducer notificationProducer) {
+    public CommentServiceImpl(iCommentrepository commnetRepository, CommentMapper commentMapper, IPostRepository postRepository, IUserRepository userRepository, NotificationOutboxWriter notificationOutbox, LookupCache lookupCache, HotScoreService hotScores) {
         this.commentRepository = commnetRepository;
         this.commentMapper = commentMapper;
         this.postRepository = postRepository;
         this.userRepository = userRepository;
-        this.notificationProducer = notificationProducer;
+        this.notificationOutbox = notificationOutbox;
+        this.lookupCache = lookupCache;
+        this.hotScores = hotScores;
     }
 
     /**
@@ -51,6 +60,18 @@ public class CommentServiceImpl implements ICommentService {
         return commentRepository.findAll().stream()
                 .map(commentMapper::toDTO).toList();
     }
+    /**
+     * Recorre todos los comentarios con un cursor de solo avance, entregándolos de a uno
+     * sin cargarlos todos en memoria. La transacción queda abierta mientras dura el recorrido.
+     *
+     * @param sink receptor de cada comentario
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<CommentDTO> sink) {
+        try (Stream<CommentDTO> comments = commentRepository.streamAll()) {
+            comments.forEach(sink);
+        }
+    }
     /**
      * Busca un comentario por su ID.
      *
@@ -67,7 +88,7 @@ public class CommentServiceImpl implements ICommentService {
      * Crea y guarda un nuevo comentario asociado a un post y a un autor.
      *
      * Si el autor del comentario es distinto al autor del post,
-     * envía un evento de notificación a Kafka.
+     * registra un evento de notificación en el outbox, en la misma transacción.
      *
      * @param commentDTO Datos del comentario a guardar (incluye postId y authorNick)
      * @return El CommentDTO guardado
@@ -84,47 +105,97 @@ public class CommentServiceImpl implements ICommentService {
         Post post = postRepository.findById(commentDTO.postId())
                 .orElseThrow(() -> new RuntimeException("Post not found with id " + commentDTO.postId()));
 
-        // Obtenemos el usuario actual (author) desde el contexto de seguridad
-        User author = userRepository.findByProfile_Nick(commentDTO.authorNick())
+        // Resolvemos el autor por nick desde la caché local
+        AuthorRefDTO author = lookupCache.findAuthorByNick(commentDTO.authorNick())
                 .orElseThrow(() -> new RuntimeException("User not found with username " + commentDTO.authorNick()));
 
         // Asignamos relaciones
         comment.setPost(post);
-        comment.setAuthor(author);
+        comment.setAuthor(userRepository.getReferenceById(author.id()));
 
         // Podemos asignar createdAt ahora o dejar que JPA lo haga automáticamente
         comment.setCreatedAt(LocalDateTime.now());
 
         // Guardamos la entidad
         Comment saved = commentRepository.save(comment);
+        postRepository.incrementCommentCount(post.getId(), 1);
+        hotScores.recordComment(post.getId(), post.getCategory() != null ? post.getCategory().getId() : null);
 
-        // Enviar evento Kafka solo si el autor del comentario no es el autor del post.
-        if (!saved.getAuthor().getId().equals(saved.getPost().getAuthor().getId())) {
+        // Registrar el evento en el outbox solo si el autor del comentario no es el autor del post.
+        if (!author.id().equals(post.getAuthor().getId())) {
             NotificationEvent event = new NotificationEvent(
-                    saved.getPost().getAuthor().getId(),
+                    post.getAuthor().getId(),
                     "COMMENT",
-                    saved.getAuthor().getProfile().getNick() + " commented on your post.",
+                    author.nick() + " commented on your post.",
                     saved.getPost().getId(),
                     saved.getId(),
-                    null
+                    null,
+                    author.nick()
             );
-            notificationProducer.sendNotification(event);
+            notificationOutbox.enqueue(event);
         }
-        // Convertimos a DTO para devolver
-        return commentMapper.toDTO(saved);
+        // Armamos el DTO con los datos ya resueltos, sin cargar el autor
+        return new CommentDTO(saved.getId(), saved.getContent(), saved.getCreatedAt(), author.nick(), post.getId());
     }
 
     /**
-     * Busca todos los comentarios de un post específico, ordenados por fecha de creación descendente.
+     * Obtiene todos los comentarios de un post, del más reciente al más antiguo,
+     * con el nick del autor resuelto en la misma consulta.
      *
      * @param postId ID del post
-     * @return Lista de CommentDTO
+     * @return lista de comentarios del post
      */
     public List<CommentDTO> findByPostId(Long postId) {
-        return commentRepository.findByPost_IdOrderByCreatedAtDesc(postId)
-                .stream()
-                .map(commentMapper::toDTO)
-                .toList();
+        return commentRepository.findAllByPostId(postId);
+    }
+
+    /**
+     * Obtiene una página de comentarios de un post por cursor, del más reciente al más antiguo.
+     *
+     * El nick del autor se resuelve en la misma consulta y el total sale del contador
+     * de comentarios del post, sin ejecutar {@code COUNT(*)}.
+     *
+     * @param postId ID del post
+     * @param cursor cursor devuelto por la página anterior, o vacío para la primera página
+     * @param size   cantidad de comentarios por página
+     * @return página de comentarios con el cursor de la siguiente
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public CursorPageDTO<CommentDTO> findByPostIdByCursor(Long postId, String cursor, int size) {
+        if (cursor == null || cursor.isBlank()) {
+            return findFirstPageByPostId(postId, size);
+        }
+        CursorUtils.Cursor position = CursorUtils.decode(cursor);
+        List<CommentDTO> comments = commentRepository.findPageByPostIdBefore(postId, position.createdAt(), position.id(), PageRequest.of(0, size + 1));
+        return toCursorPageDTO(postId, comments, size);
+    }
+
+    /**
+     * Obtiene la primera página de comentarios de un post, del más reciente al más antiguo,
+     * con el nick del autor resuelto en la misma consulta.
+     *
+     * @param postId ID del post
+     * @param size   cantidad de comentarios por página
+     * @return página de comentarios con el cursor de la siguiente
+     */
+    public CursorPageDTO<CommentDTO> findFirstPageByPostId(Long postId, int size) {
+        return toCursorPageDTO(postId, commentRepository.findFirstPageByPostId(postId, PageRequest.of(0, size + 1)), size);
+    }
+
+    /**
+     * Arma una página por cursor a partir de hasta {@code size + 1} comentarios.
+     * La fila extra solo indica si existe una página siguiente.
+     */
+    private CursorPageDTO<CommentDTO> toCursorPageDTO(Long postId, List<CommentDTO> comments, int size) {
+        boolean last = comments.size() <= size;
+        List<CommentDTO> content = last ? comments : comments.subList(0, size);
+        String next = null;
+        if (!last) {
+            CommentDTO tail = content.get(content.size() - 1);
+            next = CursorUtils.encode(tail.createdAt(), tail.id());
+        }
+        long total = postRepository.findCommentCountById(postId).orElse(0L);
+        return new CursorPageDTO<>(content, size, next, last, total);
     }
 
     /**
@@ -133,8 +204,12 @@ public class CommentServiceImpl implements ICommentService {
      * @param id ID del comentario a eliminar
      */
 
+    @Transactional
     @Override
     public void deleteById(Long id) {
-        commentRepository.deleteById(id);
+        commentRepository.findById(id).ifPresent(comment -> {
+            commentRepository.delete(comment);
+            postRepository.incrementCommentCount(comment.getPost().getId(), -1);
+        });
     }
 }
@@ -0,0 +1,171 @@
+package com.gabeust.forohub.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabeust.forohub.dto.PageDTO;
+import com.gabeust.forohub.dto.PostDTO;
+import com.gabeust.forohub.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Caché read-through en Redis de las primeras páginas del feed de posts.
+ *
+ * Cada página se guarda serializada bajo una clave (categoría, modo, orden, página, tamaño) con un TTL
+ * que acota la antigüedad máxima. Además se mantienen dos índices inversos para invalidar con precisión:
+ * - por alcance (feed global o categoría), usado cuando se crea o elimina un post;
+ * - por post, usado cuando un post se edita o cambian sus reacciones.
+ *
+ * Si Redis no está disponible, las lecturas van directo a la base de datos.
+ */
+@Slf4j
+@Service
+public class FeedCacheService {
+
+    private static final String PAGE_PREFIX = "feed:page:";
+    private static final String SCOPE_PREFIX = "feed:scope:";
+    private static final String POST_PREFIX = "feed:post:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final JavaType pageType;
+    private final long ttlSeconds;
+    private final int maxCachedPage;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public FeedCacheService(StringRedisTemplate redisTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${forohub.feed.cache.ttl-seconds:60}") long ttlSeconds,
+                            @Value("${forohub.feed.cache.max-page:3}") int maxCachedPage) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.pageType = objectMapper.getTypeFactory().constructParametricType(PageDTO.class, PostDTO.class);
+        this.ttlSeconds = ttlSeconds;
+        this.maxCachedPage = maxCachedPage;
+        this.hits = Counter.builder("forohub.feed.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("forohub.feed.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("forohub.feed.cache.evictions").register(meterRegistry);
+    }
+
+    /**
+     * Devuelve la página desde Redis o la carga con {@code loader} y la guarda.
+     * Solo se cachean las primeras {@code forohub.feed.cache.max-page} páginas.
+     *
+     * @param categoryId ID de la categoría, o null para el feed global
+     * @param mode       modo de paginación (por ejemplo "page" o "slice")
+     * @param sort       orden solicitado
+     * @param page       número de página
+     * @param size       tamaño de página
+     * @param loader     carga la página desde la base de datos
+     * @return la página solicitada
+     */
+    public PageDTO<PostDTO> getOrLoad(Long categoryId, String mode, Sort sort, int page, int size,
+                                      Supplier<PageDTO<PostDTO>> loader) {
+        if (page >= maxCachedPage) {
+            return loader.get();
+        }
+        String scope = scope(categoryId);
+        String key = PAGE_PREFIX + scope + ":" + mode + ":" + sort.toString().replace(" ", "") + ":" + page + ":" + size;
+
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                hits.increment();
+                return objectMapper.readValue(cached, pageType);
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Feed cache read failed for {}: {}", key, e.getMessage());
+        }
+
+        misses.increment();
+        PageDTO<PostDTO> result = loader.get();
+        store(key, scope, result);
+        return result;
+    }
+
+    /**
+     * Invalida todas las páginas del feed global y de la categoría indicada.
+     * Se usa al crear o eliminar un post, porque desplaza el contenido de todas las páginas.
+     * Si hay una transacción activa, la invalidación se ejecuta después del commit.
+     *
+     * @param categoryId ID de la categoría afectada, puede ser null
+     */
+    public void evictScope(Long categoryId) {
+        TransactionUtils.afterCommit(() -> {
+            evictIndex(SCOPE_PREFIX + scope(null));
+            if (categoryId != null) {
+                evictIndex(SCOPE_PREFIX + scope(categoryId));
+            }
+        });
+    }
+
+    /**
+     * Invalida solo las páginas cacheadas que contienen el post indicado.
+     * Se usa al editar un post o cuando cambian sus reacciones.
+     * Si hay una transacción activa, la invalidación se ejecuta después del commit.
+     *
+     * @param postId ID del post
+     */
+    public void evictPost(Long postId) {
+        TransactionUtils.afterCommit(() -> evictIndex(POST_PREFIX + postId));
+    }
+
+    private void store(String key, String scope, PageDTO<PostDTO> page) {
+        try {
+            String json = objectMapper.writeValueAsString(page);
+            String scopeKey = SCOPE_PREFIX + scope;
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.setEx(key, ttlSeconds, json);
+                redis.sAdd(scopeKey, key);
+                redis.expire(scopeKey, ttlSeconds);
+                for (PostDTO post : page.content()) {
+                    String postKey = POST_PREFIX + post.id();
+                    redis.sAdd(postKey, key);
+                    redis.expire(postKey, ttlSeconds);
+                }
+                return null;
+            });
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Feed cache write failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void evictIndex(String indexKey) {
+        try {
+            Set<String> pageKeys = redisTemplate.opsForSet().members(indexKey);
+            List<String> keys = new ArrayList<>();
+            keys.add(indexKey);
+            if (pageKeys != null) {
+                keys.addAll(pageKeys);
+            }
+            Long deleted = redisTemplate.delete(keys);
+            if (deleted != null && deleted > 1) {
+                evictions.increment(deleted - 1);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Feed cache eviction failed for {}: {}", indexKey, e.getMessage());
+        }
+    }
+
+    private String scope(Long categoryId) {
+        return categoryId == null ? "all" : "category:" + categoryId;
+    }
+}
@@ -0,0 +1,211 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.entity.Category;
+import com.gabeust.forohub.repository.ICategoryRepository;
+import com.gabeust.forohub.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Puntajes "hot" de las publicaciones, mantenidos de forma incremental en sorted sets de Redis
+ * (uno global y uno por categoría).
+ *
+ * Cada interacción suma {@code peso * e^((t - epoch) / tau)}: en lugar de decaer todos los puntajes
+ * con el tiempo, las interacciones nuevas valen exponencialmente más, lo que produce el mismo orden
+ * que un decaimiento exponencial con vida media {@code tau * ln 2}. Un reescalador periódico
+ * multiplica los puntajes por {@code e^((epoch - ahora) / tau)} y mueve el epoch a ahora, para que
+ * los valores no crezcan sin límite; de paso descarta los posts cuyo puntaje ya es despreciable.
+ *
+ * El epoch se guarda en Redis y tanto los incrementos como el reescalado se ejecutan en scripts Lua,
+ * por lo que todas las instancias comparten la misma escala. Leer una página cuesta O(log n + tamaño).
+ */
+@Slf4j
+@Service
+public class HotScoreService {
+
+    private static final String EPOCH_KEY = "hot:epoch";
+    private static final String ALL_KEY = "hot:all";
+    private static final String CATEGORY_PREFIX = "hot:category:";
+
+    private static final RedisScript<String> INCREMENT = new DefaultRedisScript<>("""
+            local epoch = tonumber(redis.call('GET', KEYS[1]))
+            if not epoch then
+              epoch = tonumber(ARGV[3])
+              redis.call('SET', KEYS[1], ARGV[3])
+            end
+            local delta = tonumber(ARGV[2]) * math.exp((tonumber(ARGV[3]) - epoch) / tonumber(ARGV[4]))
+            for i = 2, #KEYS do
+              redis.call('ZINCRBY', KEYS[i], tostring(delta), ARGV[1])
+            end
+            return tostring(delta)
+            """, String.class);
+
+    private static final RedisScript<Long> RESCALE = new DefaultRedisScript<>("""
+            local epoch = tonumber(redis.call('GET', KEYS[1]))
+            if not epoch then
+              return 0
+            end
+            local factor = math.exp((epoch - tonumber(ARGV[1])) / tonumber(ARGV[2]))
+            local maxSize = tonumber(ARGV[4])
+            for i = 2, #KEYS do
+              local entries = redis.call('ZRANGE', KEYS[i], 0, -1, 'WITHSCORES')
+              for j = 1, #entries, 2 do
+                redis.call('ZADD', KEYS[i], tostring(tonumber(entries[j + 1]) * factor), entries[j])
+              end
+              redis.call('ZREMRANGEBYSCORE', KEYS[i], '-inf', '(' .. ARGV[3])
+              if maxSize > 0 then
+                redis.call('ZREMRANGEBYRANK', KEYS[i], 0, -(maxSize + 1))
+              end
+            end
+            redis.call('SET', KEYS[1], ARGV[1])
+            return #KEYS - 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ICategoryRepository categoryRepository;
+    private final double tauSeconds;
+    private final double postWeight;
+    private final double reactionWeight;
+    private final double commentWeight;
+    private final double minScore;
+    private final long maxSize;
+
+    public HotScoreService(StringRedisTemplate redisTemplate,
+                           ICategoryRepository categoryRepository,
+                           @Value("${forohub.hot.tau-seconds:43200}") double tauSeconds,
+                           @Value("${forohub.hot.weight.post:1.0}") double postWeight,
+                           @Value("${forohub.hot.weight.reaction:1.0}") double reactionWeight,
+                           @Value("${forohub.hot.weight.comment:2.0}") double commentWeight,
+                           @Value("${forohub.hot.min-score:0.05}") double minScore,
+                           @Value("${forohub.hot.max-size:10000}") long maxSize) {
+        this.redisTemplate = redisTemplate;
+        this.categoryRepository = categoryRepository;
+        this.tauSeconds = tauSeconds;
+        this.postWeight = postWeight;
+        this.reactionWeight = reactionWeight;
+        this.commentWeight = commentWeight;
+        this.minScore = minScore;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Registra una publicación nueva, para que aparezca en el feed aunque todavía no tenga interacciones.
+     */
+    public void recordPost(Long postId, Long categoryId) {
+        incrementAfterCommit(postId, categoryId, postWeight);
+    }
+
+    /**
+     * Registra una reacción agregada.
+     *
+     * Las reacciones quitadas no se descuentan: restar con el peso de hoy quitaría mucho más de lo que
+     * la reacción sumó cuando se agregó y podría sacar al post del ranking. Su aporte decae como el resto.
+     */
+    public void recordReaction(Long postId, Long categoryId) {
+        incrementAfterCommit(postId, categoryId, reactionWeight);
+    }
+
+    /**
+     * Registra un comentario nuevo.
+     */
+    public void recordComment(Long postId, Long categoryId) {
+        incrementAfterCommit(postId, categoryId, commentWeight);
+    }
+
+    /**
+     * Quita una publicación de los rankings después del commit.
+     */
+    public void remove(Long postId, Long categoryId) {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                redisTemplate.opsForZSet().remove(ALL_KEY, postId.toString());
+                if (categoryId != null) {
+                    redisTemplate.opsForZSet().remove(CATEGORY_PREFIX + categoryId, postId.toString());
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not remove post {} from hot rankings: {}", postId, e.getMessage());
+            }
+        });
+    }
+
+    private void incrementAfterCommit(Long postId, Long categoryId, double weight) {
+        TransactionUtils.afterCommit(() -> {
+            List<String> keys = new ArrayList<>(List.of(EPOCH_KEY, ALL_KEY));
+            if (categoryId != null) {
+                keys.add(CATEGORY_PREFIX + categoryId);
+            }
+            try {
+                redisTemplate.execute(INCREMENT, keys, postId.toString(), Double.toString(weight),
+                        Long.toString(nowSeconds()), Double.toString(tauSeconds));
+            } catch (DataAccessException e) {
+                log.warn("Could not update hot score of post {}: {}", postId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Página de IDs ordenados por puntaje descendente.
+     *
+     * @param ids   IDs de los posts de la página
+     * @param total cantidad de posts en el ranking
+     */
+    public record HotPage(List<Long> ids, long total) {
+    }
+
+    /**
+     * Lee una página del ranking global o de una categoría.
+     *
+     * @param categoryId ID de la categoría, o null para el ranking global
+     * @param page       número de página (0-indexado)
+     * @param size       tamaño de página
+     * @return la página, o vacío si el ranking no existe todavía o Redis no está disponible
+     */
+    public Optional<HotPage> findPage(Long categoryId, int page, int size) {
+        String key = categoryId == null ? ALL_KEY : CATEGORY_PREFIX + categoryId;
+        try {
+            Long total = redisTemplate.opsForZSet().zCard(key);
+            if (total == null || total == 0) {
+                return Optional.empty();
+            }
+            long start = (long) page * size;
+            Set<String> members = redisTemplate.opsForZSet().reverseRange(key, start, start + size - 1);
+            List<Long> ids = members == null ? List.of() : members.stream().map(Long::valueOf).toList();
+            return Optional.of(new HotPage(ids, total));
+        } catch (DataAccessException e) {
+            log.warn("Hot ranking read failed for {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reescala todos los rankings al instante actual y descarta las entradas despreciables.
+     */
+    @Scheduled(fixedDelayString = "${forohub.hot.rescale-ms:600000}")
+    public void rescale() {
+        List<String> keys = new ArrayList<>(List.of(EPOCH_KEY, ALL_KEY));
+        for (Category category : categoryRepository.findAll()) {
+            keys.add(CATEGORY_PREFIX + category.getId());
+        }
+        try {
+            redisTemplate.execute(RESCALE, keys, Long.toString(nowSeconds()), Double.toString(tauSeconds),
+                    Double.toString(minScore), Long.toString(maxSize));
+        } catch (DataAccessException e) {
+            log.warn("Hot ranking rescale failed: {}", e.getMessage());
+        }
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
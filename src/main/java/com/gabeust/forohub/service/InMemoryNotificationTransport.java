@@ -0,0 +1,159 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.NotificationEvent;
+import com.gabeust.forohub.kafka.NotificationCoalescer;
+import com.gabeust.forohub.util.MpmcRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Transporte de notificaciones dentro del proceso, para pruebas de carga y despliegues chicos sin Kafka.
+ *
+ * Los eventos pasan por un {@link MpmcRingBuffer} acotado. Varios hilos consumidores lo vacían por lotes
+ * (hasta {@code max-batch-size} eventos o {@code max-wait-ms} desde el primero) y los guardan con
+ * {@link NotificationCoalescer}, igual que el consumidor de Kafka. El futuro de cada envío se completa
+ * recién cuando su lote quedó guardado, así que el outbox conserva la entrega "al menos una vez".
+ *
+ * Si la escritura del lote falla, los eventos se guardan de a uno y los que vuelven a fallar se registran
+ * con {@link NotificationDeadLetterService}, como hace {@code NotificationRetryForwarder} en Kafka: un evento
+ * defectuoso no hace fallar el lote del outbox en cada pasada.
+ *
+ * Contrapresión: si el buffer está lleno, el envío reintenta hasta {@code offer-timeout-ms} y después
+ * se rechaza; el relay del outbox revierte ese lote y lo reintenta más tarde.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "forohub.notifications.transport", havingValue = "memory")
+public class InMemoryNotificationTransport implements NotificationTransport {
+
+    private record Pending(NotificationEvent event, CompletableFuture<Void> stored) {
+    }
+
+    private final NotificationCoalescer coalescer;
+    private final NotificationDeadLetterService deadLetterService;
+    private final MpmcRingBuffer<Pending> buffer;
+    private final int consumers;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long offerTimeoutNanos;
+    private final Counter rejected;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public InMemoryNotificationTransport(NotificationCoalescer coalescer,
+                                         NotificationDeadLetterService deadLetterService,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${forohub.notifications.memory.capacity:65536}") int capacity,
+                                         @Value("${forohub.notifications.memory.consumers:2}") int consumers,
+                                         @Value("${forohub.notifications.memory.max-batch-size:500}") int maxBatchSize,
+                                         @Value("${forohub.notifications.memory.max-wait-ms:50}") long maxWaitMs,
+                                         @Value("${forohub.notifications.memory.offer-timeout-ms:1000}") long offerTimeoutMs) {
+        this.coalescer = coalescer;
+        this.deadLetterService = deadLetterService;
+        this.buffer = new MpmcRingBuffer<>(capacity);
+        this.consumers = consumers;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        this.rejected = Counter.builder("forohub.notifications.memory.rejected").register(meterRegistry);
+        Gauge.builder("forohub.notifications.memory.queued", buffer, MpmcRingBuffer::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < consumers; i++) {
+            Thread thread = new Thread(this::consume, "notification-memory-consumer-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> sendNotification(NotificationEvent event) {
+        Pending pending = new Pending(event, new CompletableFuture<>());
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (!buffer.offer(pending)) {
+            if (!running || System.nanoTime() > deadline) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(new RejectedExecutionException("Notification buffer is full"));
+            }
+            LockSupport.parkNanos(100_000);
+        }
+        return pending.stored();
+    }
+
+    private void consume() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || buffer.size() > 0) {
+            if (buffer.drainTo(batch, maxBatchSize) == 0) {
+                LockSupport.parkNanos(1_000_000);
+                continue;
+            }
+            // Se espera a completar el lote, como mucho max-wait-ms desde el primer evento
+            long deadline = System.nanoTime() + maxWaitNanos;
+            while (batch.size() < maxBatchSize && running && System.nanoTime() < deadline) {
+                if (buffer.drainTo(batch, maxBatchSize - batch.size()) == 0) {
+                    LockSupport.parkNanos(200_000);
+                }
+            }
+            store(batch);
+            batch.clear();
+        }
+    }
+
+    private void store(List<Pending> batch) {
+        try {
+            coalescer.store(batch.stream().map(Pending::event).toList());
+            batch.forEach(pending -> pending.stored().complete(null));
+        } catch (RuntimeException e) {
+            log.warn("In-memory notification batch of {} failed, storing one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::storeOrDeadLetter);
+        }
+    }
+
+    /**
+     * Guarda un evento solo; si vuelve a fallar queda como dead letter y su envío se da por completado.
+     * Solo si tampoco se puede registrar el dead letter el futuro falla y el outbox lo reintenta.
+     */
+    private void storeOrDeadLetter(Pending pending) {
+        try {
+            coalescer.store(List.of(pending.event()));
+            pending.stored().complete(null);
+        } catch (RuntimeException e) {
+            try {
+                deadLetterService.record(pending.event(), "memory", e.getMessage());
+                pending.stored().complete(null);
+            } catch (RuntimeException deadLetterError) {
+                log.error("Could not dead-letter notification for user {}: {}",
+                        pending.event().recipientUserId(), deadLetterError.getMessage());
+                pending.stored().completeExceptionally(deadLetterError);
+            }
+        }
+    }
+
+    /**
+     * Deja de aceptar eventos y espera a que los consumidores guarden lo que quedó en el buffer.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.AuthorRefDTO;
+import com.gabeust.forohub.dto.CategoryDTO;
+import com.gabeust.forohub.mapper.CategoryMapper;
+import com.gabeust.forohub.repository.ICategoryRepository;
+import com.gabeust.forohub.repository.IUserRepository;
+import com.gabeust.forohub.util.TransactionUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caché local (en la JVM) de las búsquedas de categorías por nombre, de autores por nick y de usuarios
+ * por email que se hacen en cada escritura de posts, comentarios y reacciones.
+ *
+ * Las entradas se desalojan por tamaño y por TTL. Las invalidaciones se publican por Redis pub/sub
+ * en {@link #INVALIDATION_CHANNEL} para que todos los nodos descarten la misma entrada.
+ * Solo se guardan resultados encontrados; las búsquedas sin resultado siempre van a la base de datos.
+ */
+@Slf4j
+@Service
+public class LookupCache {
+
+    public static final String INVALIDATION_CHANNEL = "forohub:lookup-invalidation";
+    private static final String NICK_PREFIX = "nick:";
+    private static final String EMAIL_PREFIX = "email:";
+    private static final String ALL_CATEGORIES = "categories";
+
+    private final IUserRepository userRepository;
+    private final ICategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, AuthorRefDTO> authors;
+    private final Cache<String, CategoryDTO> categories;
+    private final Cache<String, Long> userIds;
+
+    public LookupCache(IUserRepository userRepository,
+                       ICategoryRepository categoryRepository,
+                       CategoryMapper categoryMapper,
+                       StringRedisTemplate redisTemplate,
+                       @Value("${forohub.lookup-cache.max-size:10000}") long maxSize,
+                       @Value("${forohub.lookup-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryMapper = categoryMapper;
+        this.redisTemplate = redisTemplate;
+        this.authors = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.categories = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Busca el autor asociado a un nick, primero en la caché local.
+     *
+     * @param nick nick del perfil
+     * @return Optional con el autor si existe
+     */
+    public Optional<AuthorRefDTO> findAuthorByNick(String nick) {
+        AuthorRefDTO cached = authors.getIfPresent(nick);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<AuthorRefDTO> author = userRepository.findAuthorRefByNick(nick);
+        author.ifPresent(value -> authors.put(nick, value));
+        return author;
+    }
+
+    /**
+     * Busca el ID del usuario autenticado a partir de su email, primero en la caché local.
+     * El email no cambia, así que la entrada solo se desaloja por tamaño, por TTL o al eliminar el usuario.
+     *
+     * @param email email del usuario
+     * @return Optional con el ID si existe
+     */
+    public Optional<Long> findUserIdByEmail(String email) {
+        Long cached = userIds.getIfPresent(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Long> userId = userRepository.findIdByEmail(email);
+        userId.ifPresent(value -> userIds.put(email, value));
+        return userId;
+    }
+
+    /**
+     * Busca una categoría por nombre, primero en la caché local.
+     *
+     * @param name nombre de la categoría
+     * @return Optional con la categoría si existe
+     */
+    public Optional<CategoryDTO> findCategoryByName(String name) {
+        CategoryDTO cached = categories.getIfPresent(name);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<CategoryDTO> category = categoryRepository.findByName(name).map(categoryMapper::toDTO);
+        category.ifPresent(value -> categories.put(name, value));
+        return category;
+    }
+
+    /**
+     * Invalida en todos los nodos la entrada de un nick, después del commit si hay una transacción activa.
+     *
+     * @param nick nick que cambió o se eliminó
+     */
+    public void invalidateNick(String nick) {
+        if (nick != null) {
+            publish(NICK_PREFIX + nick);
+        }
+    }
+
+    /**
+     * Invalida en todos los nodos el ID cacheado para un email, después del commit si hay una transacción activa.
+     *
+     * @param email email del usuario eliminado
+     */
+    public void invalidateEmail(String email) {
+        if (email != null) {
+            publish(EMAIL_PREFIX + email);
+        }
+    }
+
+    /**
+     * Invalida en todos los nodos todas las categorías, después del commit si hay una transacción activa.
+     */
+    public void invalidateCategories() {
+        publish(ALL_CATEGORIES);
+    }
+
+    /**
+     * Aplica localmente un mensaje de invalidación recibido por Redis pub/sub.
+     *
+     * @param message mensaje con la entrada a invalidar
+     */
+    public void onInvalidation(String message) {
+        if (message.startsWith(NICK_PREFIX)) {
+            authors.invalidate(message.substring(NICK_PREFIX.length()));
+        } else if (message.startsWith(EMAIL_PREFIX)) {
+            userIds.invalidate(message.substring(EMAIL_PREFIX.length()));
+        } else if (ALL_CATEGORIES.equals(message)) {
+            categories.invalidateAll();
+        }
+    }
+
+    private void publish(String message) {
+        TransactionUtils.afterCommit(() -> {
+            // Se invalida localmente aunque Redis no esté disponible
+            onInvalidation(message);
+            try {
+                redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+            } catch (DataAccessException e) {
+                log.warn("Could not publish lookup cache invalidation {}: {}", message, e.getMessage());
+            }
+        });
+    }
+}
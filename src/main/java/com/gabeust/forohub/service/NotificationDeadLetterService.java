@@ -0,0 +1,111 @@
+package com.gabeust.forohub.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabeust.forohub.dto.NotificationEvent;
+import com.gabeust.forohub.entity.NotificationDeadLetter;
+import com.gabeust.forohub.kafka.NotificationOutboxWriter;
+import com.gabeust.forohub.repository.INotificationDeadLetterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda y reenvía los eventos de notificación que agotaron sus reintentos.
+ *
+ * Reenviar un dead letter lo escribe en el outbox y lo borra en la misma transacción, así el relay lo
+ * vuelve a publicar por el transporte configurado sin riesgo de perderlo ni de duplicarlo en la tabla.
+ */
+@Slf4j
+@Service
+public class NotificationDeadLetterService {
+
+    private final INotificationDeadLetterRepository deadLetterRepository;
+    private final NotificationOutboxWriter notificationOutbox;
+    private final ObjectMapper objectMapper;
+    private final Counter deadLetters;
+    private final Counter replayed;
+
+    public NotificationDeadLetterService(INotificationDeadLetterRepository deadLetterRepository,
+                                         NotificationOutboxWriter notificationOutbox,
+                                         ObjectMapper objectMapper,
+                                         MeterRegistry meterRegistry) {
+        this.deadLetterRepository = deadLetterRepository;
+        this.notificationOutbox = notificationOutbox;
+        this.objectMapper = objectMapper;
+        this.deadLetters = Counter.builder("forohub.notifications.dead-letters").register(meterRegistry);
+        this.replayed = Counter.builder("forohub.notifications.dead-letters.replayed").register(meterRegistry);
+    }
+
+    /**
+     * Guarda un evento que no se pudo procesar.
+     *
+     * @param event  evento fallido
+     * @param source topic o transporte donde falló
+     * @param error  mensaje del último error, puede ser null
+     */
+    public void record(NotificationEvent event, String source, String error) {
+        try {
+            recordRaw(objectMapper.writeValueAsString(event), source, error);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize notification event", e);
+        }
+    }
+
+    /**
+     * Guarda un registro tal como llegó, sin interpretarlo (por ejemplo, uno que no se pudo deserializar).
+     *
+     * @param payload contenido del registro, puede ser null
+     * @param source  topic o transporte donde falló
+     * @param error   mensaje del último error, puede ser null
+     */
+    public void recordRaw(String payload, String source, String error) {
+        NotificationDeadLetter deadLetter = new NotificationDeadLetter();
+        deadLetter.setPayload(payload == null ? "" : payload);
+        deadLetter.setSource(source);
+        if (error != null) {
+            deadLetter.setError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        }
+        deadLetterRepository.save(deadLetter);
+        deadLetters.increment();
+        log.error("Notification dead-lettered from {}: {}", source, error);
+    }
+
+    /**
+     * Cantidad de dead letters pendientes.
+     */
+    public long count() {
+        return deadLetterRepository.count();
+    }
+
+    /**
+     * Reenvía hasta {@code limit} dead letters, del más antiguo al más nuevo, a través del outbox.
+     *
+     * @param limit cantidad máxima a reenviar
+     * @return cantidad reenviada
+     */
+    @Transactional
+    public int replay(int limit) {
+        List<NotificationDeadLetter> batch = deadLetterRepository.lockBatch(limit);
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (NotificationDeadLetter deadLetter : batch) {
+            try {
+                notificationOutbox.enqueue(objectMapper.readValue(deadLetter.getPayload(), NotificationEvent.class));
+                ids.add(deadLetter.getId());
+            } catch (JsonProcessingException e) {
+                // Se deja en la tabla para revisarlo a mano
+                log.warn("Skipping unreadable dead letter {}: {}", deadLetter.getId(), e.getMessage());
+            }
+        }
+        if (!ids.isEmpty()) {
+            deadLetterRepository.deleteByIds(ids);
+        }
+        replayed.increment(ids.size());
+        return ids.size();
+    }
+}
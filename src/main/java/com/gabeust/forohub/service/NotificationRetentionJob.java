@@ -0,0 +1,168 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.repository.INotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tarea periódica que borra las notificaciones leídas más antiguas que {@code forohub.notifications.retention.max-age-days}.
+ *
+ * Recorre la tabla por clave primaria en bloques acotados, borra cada bloque en su propia transacción corta
+ * y hace una pausa entre bloques, para no retener locks ni generar picos de lag en las réplicas.
+ * Solo un nodo la ejecuta a la vez: antes de empezar toma un lease en Redis que renueva en cada bloque.
+ * Las notificaciones no leídas nunca se borran, así que los contadores de no leídas no cambian.
+ */
+@Slf4j
+@Service
+public class NotificationRetentionJob {
+
+    private static final String LEASE_KEY = "notifications:retention:lease";
+
+    // Renueva o libera el lease solo si sigue siendo de este nodo
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final INotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final long maxAgeDays;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final long leaseMs;
+    private final Counter purged;
+    private final Timer duration;
+
+    public NotificationRetentionJob(INotificationRepository notificationRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    StringRedisTemplate redisTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${forohub.notifications.retention.max-age-days:90}") long maxAgeDays,
+                                    @Value("${forohub.notifications.retention.chunk-size:1000}") int chunkSize,
+                                    @Value("${forohub.notifications.retention.pause-ms:200}") long pauseMs,
+                                    @Value("${forohub.notifications.retention.lease-ms:60000}") long leaseMs) {
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.redisTemplate = redisTemplate;
+        this.maxAgeDays = maxAgeDays;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.leaseMs = leaseMs;
+        this.purged = Counter.builder("forohub.notifications.retention.purged").register(meterRegistry);
+        this.duration = Timer.builder("forohub.notifications.retention.duration").register(meterRegistry);
+    }
+
+    /**
+     * Borra las notificaciones leídas vencidas, si este nodo obtiene el lease.
+     *
+     * @return cantidad de notificaciones borradas, o -1 si otro nodo tiene el lease
+     */
+    @Scheduled(initialDelayString = "${forohub.notifications.retention.initial-delay-ms:300000}",
+            fixedDelayString = "${forohub.notifications.retention.interval-ms:3600000}")
+    public long purge() {
+        String token = UUID.randomUUID().toString();
+        if (!acquire(token)) {
+            return -1;
+        }
+        try {
+            return duration.record(() -> purgeChunks(token));
+        } finally {
+            release(token);
+        }
+    }
+
+    private long purgeChunks(String token) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays);
+        long total = 0;
+        long lastId = 0L;
+        List<Long> ids;
+        do {
+            ids = notificationRepository.findPurgeableIdsAfter(lastId, cutoff, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = ids;
+            Integer deleted = transactionTemplate.execute(status -> notificationRepository.deleteReadByIds(chunk, cutoff));
+            int count = deleted != null ? deleted : 0;
+            total += count;
+            purged.increment(count);
+            lastId = ids.get(ids.size() - 1);
+
+            if (!renew(token)) {
+                log.warn("Notification retention lease lost, stopping after {} rows", total);
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        } while (ids.size() == chunkSize);
+
+        if (total > 0) {
+            log.info("Notification retention purged {} read notifications older than {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean acquire(String token) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LEASE_KEY, token, Duration.ofMillis(leaseMs)));
+        } catch (DataAccessException e) {
+            // Sin Redis no se puede coordinar entre nodos: se omite esta pasada
+            log.warn("Could not acquire notification retention lease: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean renew(String token) {
+        try {
+            Long renewed = redisTemplate.execute(RENEW, List.of(LEASE_KEY), token, Long.toString(leaseMs));
+            return renewed != null && renewed == 1;
+        } catch (DataAccessException e) {
+            log.warn("Could not renew notification retention lease: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void release(String token) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(LEASE_KEY), token);
+        } catch (DataAccessException e) {
+            log.warn("Could not release notification retention lease: {}", e.getMessage());
+        }
+    }
+}
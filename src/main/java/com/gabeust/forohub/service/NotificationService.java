@@ -1,9 +1,15 @@
 package com.gabeust.forohub.service;
 
+import com.gabeust.forohub.dto.CursorPageDTO;
+import com.gabeust.forohub.dto.NotificationDTO;
 import com.gabeust.forohub.entity.Notification;
 import com.gabeust.forohub.repository.INotificationRepository;
+import com.gabeust.forohub.util.CursorUtils;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 /**
  * Servicio para gestionar notificaciones: consultar y marcar como leídas.
@@ -12,9 +18,11 @@ import java.util.List;
 public class NotificationService {
 
     private final INotificationRepository notificationRepository;
+    private final UnreadNotificationCounter unreadCounter;
 
-    public NotificationService(INotificationRepository notificationRepository) {
+    public NotificationService(INotificationRepository notificationRepository, UnreadNotificationCounter unreadCounter) {
         this.notificationRepository = notificationRepository;
+        this.unreadCounter = unreadCounter;
     }
     /**
      * Obtiene las notificaciones de un usuario.
@@ -25,13 +33,89 @@ public class NotificationService {
         return notificationRepository.findByRecipientUserIdOrderByCreatedAtDesc(userId);
     }
     /**
-     * Marca una notificación como leída.
+     * Obtiene una página de la bandeja de un usuario por cursor, de la más reciente a la más antigua.
+     *
+     * Cada página es un recorrido por índice desde la posición del cursor, así que su costo no depende
+     * del tamaño de la bandeja. Con {@code unreadOnly} el total informado sale del contador de no leídas;
+     * en la bandeja completa no se cuenta.
+     *
+     * @param userId     ID del usuario
+     * @param cursor     cursor opaco de la página anterior, o vacío para la primera
+     * @param size       cantidad de notificaciones por página
+     * @param unreadOnly si solo se incluyen las no leídas
+     * @return página de notificaciones con el cursor de la siguiente
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public CursorPageDTO<NotificationDTO> getInbox(Long userId, String cursor, int size, boolean unreadOnly) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<NotificationDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = unreadOnly
+                    ? notificationRepository.findUnreadFirstPage(userId, limit)
+                    : notificationRepository.findInboxFirstPage(userId, limit);
+        } else {
+            CursorUtils.Cursor position = CursorUtils.decode(cursor);
+            rows = unreadOnly
+                    ? notificationRepository.findUnreadPageBefore(userId, position.createdAt(), position.id(), limit)
+                    : notificationRepository.findInboxPageBefore(userId, position.createdAt(), position.id(), limit);
+        }
+
+        // La fila extra solo indica si existe una página siguiente
+        boolean last = rows.size() <= size;
+        List<NotificationDTO> content = last ? rows : rows.subList(0, size);
+        String next = null;
+        if (!last) {
+            NotificationDTO tail = content.get(content.size() - 1);
+            next = CursorUtils.encode(tail.createdAt(), tail.id());
+        }
+        long total = unreadOnly ? unreadCounter.get(userId) : -1;
+        return new CursorPageDTO<>(content, size, next, last, total);
+    }
+    /**
+     * Obtiene la cantidad de notificaciones no leídas de un usuario desde su contador.
+     * @param userId ID del usuario
+     * @return cantidad de notificaciones no leídas
+     */
+    public long getUnreadCount(Long userId) {
+        return unreadCounter.get(userId);
+    }
+    /**
+     * Marca como leídas varias notificaciones del usuario con un único UPDATE y descuenta del contador
+     * de no leídas la cantidad de filas que cambiaron. Los IDs de otros usuarios se ignoran.
+     * @param userId          ID del usuario autenticado
+     * @param notificationIds IDs de las notificaciones
+     * @return cantidad de notificaciones que pasaron a leídas
+     */
+    @Transactional
+    public int markAsRead(Long userId, Collection<Long> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        int updated = notificationRepository.markReadByIds(userId, notificationIds);
+        unreadCounter.add(userId, -updated);
+        return updated;
+    }
+    /**
+     * Marca como leídas todas las notificaciones del usuario con un único UPDATE.
+     * @param userId ID del usuario autenticado
+     * @return cantidad de notificaciones que pasaron a leídas
+     */
+    @Transactional
+    public int markAllAsRead(Long userId) {
+        int updated = notificationRepository.markAllRead(userId);
+        unreadCounter.add(userId, -updated);
+        return updated;
+    }
+    /**
+     * Marca una notificación como leída. El contador de no leídas solo se descuenta si el estado cambió.
      * @param notificationId ID de la notificación
      */
+    @Transactional
     public void markAsRead(Long notificationId) {
         notificationRepository.findById(notificationId).ifPresent(notification -> {
-            notification.setRead(true);
-            notificationRepository.save(notification);
+            if (notificationRepository.markReadIfUnread(notificationId) == 1) {
+                unreadCounter.add(notification.getRecipientUserId(), -1);
+            }
         });
     }
 }
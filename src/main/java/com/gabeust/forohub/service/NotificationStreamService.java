@@ -0,0 +1,187 @@
+package com.gabeust.forohub.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabeust.forohub.dto.NotificationDTO;
+import com.gabeust.forohub.entity.Notification;
+import com.gabeust.forohub.mapper.NotificationMapper;
+import com.gabeust.forohub.repository.INotificationRepository;
+import com.gabeust.forohub.util.CursorUtils;
+import com.gabeust.forohub.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Canal push de notificaciones por Server-Sent Events.
+ *
+ * Cada conexión es un {@link SseEmitter} asíncrono: mientras está inactiva no ocupa ningún hilo del servidor.
+ * Las notificaciones guardadas por el consumidor se publican por Redis pub/sub en {@link #CHANNEL} después
+ * del commit, así cada nodo las entrega a las conexiones que tiene abiertas para ese destinatario.
+ *
+ * El ID de cada evento es la posición (createdAt, id) de la notificación. Al reconectar, el navegador envía
+ * {@code Last-Event-ID} y se reenvía lo que cambió desde esa posición. Se envían heartbeats periódicos
+ * para que proxies y balanceadores no corten las conexiones inactivas.
+ */
+@Slf4j
+@Service
+public class NotificationStreamService {
+
+    public static final String CHANNEL = "forohub:notifications";
+    private static final String EVENT_NAME = "notification";
+
+    /**
+     * Mensaje publicado por Redis: la notificación y a quién entregarla.
+     */
+    public record Push(Long recipientUserId, NotificationDTO notification) {
+    }
+
+    private final INotificationRepository notificationRepository;
+    private final NotificationMapper notificationMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+    private final int replayLimit;
+
+    public NotificationStreamService(INotificationRepository notificationRepository,
+                                     NotificationMapper notificationMapper,
+                                     StringRedisTemplate redisTemplate,
+                                     ObjectMapper objectMapper,
+                                     @Value("${forohub.notifications.stream.timeout-ms:1800000}") long timeoutMs,
+                                     @Value("${forohub.notifications.stream.replay-limit:100}") int replayLimit) {
+        this.notificationRepository = notificationRepository;
+        this.notificationMapper = notificationMapper;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.replayLimit = replayLimit;
+    }
+
+    /**
+     * Abre una conexión para el usuario y reenvía lo que se perdió desde {@code lastEventId}.
+     *
+     * @param userId      ID del usuario autenticado
+     * @param lastEventId último ID de evento recibido por el cliente, o null en la primera conexión
+     * @return la conexión SSE
+     * @throws IllegalArgumentException si {@code lastEventId} no es válido
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        CursorUtils.Cursor resumeFrom = lastEventId == null || lastEventId.isBlank() ? null : CursorUtils.decode(lastEventId);
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitters.compute(userId, (id, userEmitters) -> {
+            Set<SseEmitter> set = userEmitters != null ? userEmitters : new CopyOnWriteArraySet<>();
+            set.add(emitter);
+            return set;
+        });
+        Runnable remove = () -> remove(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        // Se registra antes de reenviar: un evento puede llegar dos veces, pero nunca perderse
+        if (resumeFrom != null) {
+            List<Notification> missed = notificationRepository.findChangedSince(userId, resumeFrom.createdAt(),
+                    resumeFrom.id(), PageRequest.of(0, replayLimit));
+            for (Notification notification : missed) {
+                if (!send(emitter, notificationMapper.toDTO(notification))) {
+                    break;
+                }
+            }
+        } else {
+            heartbeat(emitter);
+        }
+        return emitter;
+    }
+
+    /**
+     * Publica las notificaciones en todos los nodos, después del commit si hay una transacción activa.
+     *
+     * @param notifications notificaciones creadas o actualizadas
+     */
+    public void publish(List<Notification> notifications) {
+        List<Push> pushes = notifications.stream()
+                .map(notification -> new Push(notification.getRecipientUserId(), notificationMapper.toDTO(notification)))
+                .toList();
+        TransactionUtils.afterCommit(() -> pushes.forEach(this::broadcast));
+    }
+
+    private void broadcast(Push push) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(push));
+        } catch (DataAccessException | JsonProcessingException e) {
+            // Sin Redis al menos se entrega a las conexiones de este nodo
+            log.warn("Could not publish notification {}: {}", push.notification().id(), e.getMessage());
+            deliver(push);
+        }
+    }
+
+    /**
+     * Entrega a las conexiones locales una notificación recibida por Redis pub/sub.
+     *
+     * @param message mensaje publicado en {@link #CHANNEL}
+     */
+    public void onMessage(String message) {
+        try {
+            deliver(objectMapper.readValue(message, Push.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed notification push: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(Push push) {
+        Set<SseEmitter> userEmitters = emitters.get(push.recipientUserId());
+        if (userEmitters != null) {
+            userEmitters.forEach(emitter -> send(emitter, push.notification()));
+        }
+    }
+
+    /**
+     * Envía un comentario SSE a todas las conexiones abiertas y descarta las que ya se cerraron.
+     */
+    @Scheduled(fixedDelayString = "${forohub.notifications.stream.heartbeat-ms:15000}")
+    public void heartbeats() {
+        emitters.values().forEach(userEmitters -> userEmitters.forEach(this::heartbeat));
+    }
+
+    private void heartbeat(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private boolean send(SseEmitter emitter, NotificationDTO notification) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(CursorUtils.encode(notification.createdAt(), notification.id()))
+                    .name(EVENT_NAME)
+                    .data(notification));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+}
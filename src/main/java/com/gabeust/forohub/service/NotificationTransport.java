@@ -0,0 +1,22 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.NotificationEvent;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transporte de eventos de notificación desde el outbox hasta el consumidor que los guarda.
+ *
+ * Se elige con {@code forohub.notifications.transport}: {@code kafka} (por defecto) publica en el topic
+ * "forum-notifications"; {@code memory} los entrega dentro del mismo proceso, sin broker.
+ */
+public interface NotificationTransport {
+
+    /**
+     * Envía el evento.
+     *
+     * @param event evento de notificación
+     * @return futuro que se completa cuando el transporte confirma la entrega, o con error si la rechaza
+     */
+    CompletableFuture<?> sendNotification(NotificationEvent event);
+}
@@ -0,0 +1,89 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.repository.IPostRepository;
+import com.gabeust.forohub.util.TransactionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché en memoria de la cantidad total de publicaciones, global y por categoría.
+ *
+ * Permite informar totales aproximados en las páginas sin ejecutar un {@code COUNT(*)} por petición.
+ * Los valores se recalculan periódicamente en segundo plano y se invalidan al crear o eliminar posts.
+ */
+@Service
+public class PostCountCache {
+
+    // Clave usada para el total global; los IDs de categoría empiezan en 1
+    private static final Long ALL = 0L;
+
+    private final IPostRepository postRepository;
+    private final Map<Long, Long> totals = new ConcurrentHashMap<>();
+
+    public PostCountCache(IPostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    /**
+     * Devuelve el total de publicaciones, contándolas solo si no hay un valor en caché.
+     *
+     * @return cantidad total de publicaciones
+     */
+    public long getTotal() {
+        return get(ALL);
+    }
+
+    /**
+     * Devuelve el total de publicaciones de una categoría, contándolas solo si no hay un valor en caché.
+     *
+     * @param categoryId ID de la categoría
+     * @return cantidad de publicaciones de la categoría
+     */
+    public long getTotalByCategory(Long categoryId) {
+        return get(categoryId);
+    }
+
+    /**
+     * Invalida el total global y el de la categoría indicada.
+     * Si hay una transacción activa, la invalidación se ejecuta después del commit: antes, un recálculo
+     * concurrente volvería a guardar el total viejo, y un rollback descartaría un valor que seguía siendo válido.
+     *
+     * @param categoryId ID de la categoría afectada, puede ser null
+     */
+    public void invalidate(Long categoryId) {
+        TransactionUtils.afterCommit(() -> {
+            totals.remove(ALL);
+            if (categoryId != null) {
+                totals.remove(categoryId);
+            }
+        });
+    }
+
+    /**
+     * Recalcula en segundo plano los totales presentes en caché.
+     * Si un total se invalida mientras se recalcula, no se sobrescribe.
+     */
+    @Scheduled(fixedDelayString = "${forohub.posts.count-cache.refresh-ms:60000}")
+    public void refresh() {
+        for (Map.Entry<Long, Long> entry : totals.entrySet()) {
+            totals.replace(entry.getKey(), entry.getValue(), count(entry.getKey()));
+        }
+    }
+
+    private long get(Long key) {
+        Long cached = totals.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long total = count(key);
+        totals.putIfAbsent(key, total);
+        return total;
+    }
+
+    private long count(Long key) {
+        return ALL.equals(key) ? postRepository.count() : postRepository.countByCategoryId(key);
+    }
+}
@@ -0,0 +1,169 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.CommentDTO;
+import com.gabeust.forohub.dto.CursorPageDTO;
+import com.gabeust.forohub.dto.PostCardDTO;
+import com.gabeust.forohub.dto.PostDTO;
+import com.gabeust.forohub.dto.PostDetailDTO;
+import com.gabeust.forohub.dto.ProfileDTO;
+import com.gabeust.forohub.enums.ReactionType;
+import com.gabeust.forohub.repository.IPostRepository;
+import com.gabeust.forohub.repository.IProfileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Arma la vista completa de un hilo (post, reacciones, perfil del autor y primera página de comentarios)
+ * en una sola llamada.
+ *
+ * Las cuatro lecturas son independientes, así que se lanzan a la vez en hilos virtuales: la latencia
+ * total es la de la rama más lenta y no la suma. Cada rama secundaria tiene su propio timeout y, si no
+ * responde a tiempo o falla, se devuelve sin esa parte en lugar de fallar la petición completa; la respuesta
+ * lo indica en {@link PostDetailDTO#degraded()} y cada caso suma a la métrica {@code forohub.post-detail.fallbacks}.
+ *
+ * Una rama vencida se interrumpe, para que no siga ocupando una conexión JDBC después de haber sido descartada.
+ * Además, la cantidad de lecturas simultáneas de todas las peticiones se limita con un semáforo: los hilos
+ * virtuales son baratos, las conexiones no. Por defecto el límite es el pool de Hikari menos
+ * {@link #RESERVED_CONNECTIONS} conexiones, que quedan para el resto de los endpoints; cada petición usa
+ * hasta cuatro permisos, así que un límite menor atiende pocas vistas a la vez y las ramas vencen esperando.
+ */
+@Slf4j
+@Service
+public class PostDetailService {
+
+    static final int RESERVED_CONNECTIONS = 2;
+
+    private final IPostRepository postRepository;
+    private final IProfileRepository profileRepository;
+    private final PostServiceImpl postService;
+    private final CommentServiceImpl commentService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long postTimeoutMs;
+    private final long branchTimeoutMs;
+    private final int commentPageSize;
+    private final Semaphore queries;
+    private final MeterRegistry meterRegistry;
+
+    public PostDetailService(IPostRepository postRepository,
+                             IProfileRepository profileRepository,
+                             PostServiceImpl postService,
+                             CommentServiceImpl commentService,
+                             MeterRegistry meterRegistry,
+                             @Value("${forohub.post-detail.post-timeout-ms:2000}") long postTimeoutMs,
+                             @Value("${forohub.post-detail.branch-timeout-ms:500}") long branchTimeoutMs,
+                             @Value("${forohub.post-detail.comment-page-size:20}") int commentPageSize,
+                             @Value("${forohub.post-detail.max-concurrent-queries:0}") int maxConcurrentQueries,
+                             @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        this.postRepository = postRepository;
+        this.profileRepository = profileRepository;
+        this.postService = postService;
+        this.commentService = commentService;
+        this.postTimeoutMs = postTimeoutMs;
+        this.branchTimeoutMs = branchTimeoutMs;
+        this.commentPageSize = commentPageSize;
+        this.queries = new Semaphore(maxConcurrentQueries > 0
+                ? maxConcurrentQueries
+                : Math.max(1, poolSize - RESERVED_CONNECTIONS));
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Cantidad de lecturas simultáneas que admite el semáforo cuando no hay ninguna en curso.
+     */
+    int availableQueries() {
+        return queries.availablePermits();
+    }
+
+    /**
+     * Obtiene la vista completa de un post.
+     *
+     * @param postId ID del post
+     * @return la vista completa, o vacío si el post no existe
+     * @throws java.util.concurrent.CompletionException si la lectura del post falla o supera su timeout
+     */
+    public Optional<PostDetailDTO> findFullById(Long postId) {
+        List<String> degraded = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Optional<PostCardDTO>> post = submit(() -> postRepository.findCardById(postId), postTimeoutMs);
+        CompletableFuture<Map<ReactionType, Long>> reactions = branch(PostDetailDTO.REACTIONS, postId,
+                () -> postService.findReactions(List.of(postId)).get(postId), null, degraded);
+        CompletableFuture<ProfileDTO> author = branch(PostDetailDTO.AUTHOR, postId,
+                () -> profileRepository.findAuthorProfileByPostId(postId).orElse(null), null, degraded);
+        CompletableFuture<CursorPageDTO<CommentDTO>> comments = branch(PostDetailDTO.COMMENTS, postId,
+                () -> commentService.findFirstPageByPostId(postId, commentPageSize),
+                new CursorPageDTO<>(List.of(), commentPageSize, null, true, -1), degraded);
+
+        return post.join().map(card -> {
+            PostDTO postDTO = card.toPostDTO(reactions.join());
+            ProfileDTO authorDTO = author.join();
+            CursorPageDTO<CommentDTO> commentPage = comments.join();
+            // Las tres ramas ya terminaron: la lista no cambia más
+            return new PostDetailDTO(postDTO, authorDTO, commentPage, List.copyOf(degraded));
+        });
+    }
+
+    /**
+     * Lanza una rama secundaria que, ante timeout o error, se completa con {@code fallback} y se anota en {@code degraded}.
+     */
+    private <T> CompletableFuture<T> branch(String name, Long postId, Supplier<T> supplier, T fallback, List<String> degraded) {
+        return submit(supplier, branchTimeoutMs)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    String reason = cause instanceof TimeoutException ? "timeout" : "error";
+                    log.warn("Post detail branch '{}' failed for post {}: {}", name, postId, cause.toString());
+                    meterRegistry.counter("forohub.post-detail.fallbacks", "branch", name, "reason", reason).increment();
+                    degraded.add(name);
+                    return fallback;
+                });
+    }
+
+    /**
+     * Ejecuta la lectura en un hilo virtual con un permiso del semáforo. Si no termina en {@code timeoutMs}
+     * (contando la espera del permiso), el futuro falla con {@link TimeoutException} y la tarea se interrumpe.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> supplier, long timeoutMs) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                if (!queries.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    result.completeExceptionally(new TimeoutException("No free slot for post detail query"));
+                    return;
+                }
+                try {
+                    result.complete(supplier.get());
+                } finally {
+                    queries.release();
+                }
+            } catch (InterruptedException e) {
+                result.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        // Una vez resuelto el futuro (a tiempo o no), la tarea ya no sirve: si sigue corriendo, se interrumpe
+        result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).whenComplete((value, e) -> task.cancel(true));
+        return result;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,493 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.PostSearchDocDTO;
+import com.gabeust.forohub.repository.IPostRepository;
+import com.gabeust.forohub.util.CursorUtils;
+import com.gabeust.forohub.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en disco (Lucene) sobre el título y el contenido de las publicaciones.
+ *
+ * Los resultados se ordenan por relevancia BM25 y, a igual relevancia, por ID descendente, lo que
+ * permite paginar por cursor con {@code searchAfter}. El costo de una búsqueda depende de los términos
+ * consultados y no del tamaño de la tabla, a diferencia de un {@code LIKE '%x%'}.
+ *
+ * El índice se actualiza de forma incremental después del commit de cada alta, edición o baja.
+ * Los cambios se hacen visibles para las búsquedas periódicamente y se persisten en disco con
+ * commits espaciados, para no pagar un fsync por cada escritura.
+ *
+ * Cada nodo tiene su propio índice en disco. El nodo que atendió la escritura publica el ID del post en
+ * {@link #CHANNEL} (Redis pub/sub) y los demás releen ese post de la base de datos: lo indexan si existe y
+ * lo quitan si no. Releerlo hace que el mensaje no dependa del orden de llegada. Las reconstrucciones
+ * pedidas por un administrador se propagan igual.
+ */
+@Slf4j
+@Service
+public class PostSearchIndex {
+
+    public static final String CHANNEL = "forohub:search-index";
+    private static final String REBUILD = "rebuild";
+    private static final String SEPARATOR = "|";
+
+    private static final String ID = "id";
+    private static final String ID_SORT = "id_sort";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final String CATEGORY = "category";
+
+    private static final Sort RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.LONG, true));
+
+    private final IPostRepository postRepository;
+    private final StringRedisTemplate redisTemplate;
+    // Identifica los mensajes propios, que este nodo ya aplicó antes de publicarlos
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Path indexDir;
+    private final float titleBoost;
+    private final int rebuildChunkSize;
+    private final int rebuildThreads;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Lectura: usar el writer. Escritura: descartarlo y reabrirlo tras una reconstrucción fallida.
+    private final ReadWriteLock writerLock = new ReentrantReadWriteLock();
+
+    private Directory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+
+    public PostSearchIndex(IPostRepository postRepository,
+                           StringRedisTemplate redisTemplate,
+                           @Value("${forohub.search.index-dir:data/search-index}") String indexDir,
+                           @Value("${forohub.search.title-boost:2.0}") float titleBoost,
+                           @Value("${forohub.search.rebuild.chunk-size:1000}") int rebuildChunkSize,
+                           @Value("${forohub.search.rebuild.threads:4}") int rebuildThreads) {
+        this.postRepository = postRepository;
+        this.redisTemplate = redisTemplate;
+        this.indexDir = Path.of(indexDir);
+        this.titleBoost = titleBoost;
+        this.rebuildChunkSize = rebuildChunkSize;
+        this.rebuildThreads = rebuildThreads;
+    }
+
+    /**
+     * Abre (o crea) el índice en disco.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(indexDir);
+        directory = FSDirectory.open(indexDir);
+        openWriter();
+    }
+
+    private void openWriter() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setSimilarity(new BM25Similarity());
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                searcher.setSimilarity(new BM25Similarity());
+                return searcher;
+            }
+        });
+    }
+
+    /**
+     * Si el índice está vacío al arrancar (primer despliegue o directorio borrado), lo reconstruye en segundo plano.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Indexa (o reemplaza) una publicación después del commit de la transacción actual.
+     *
+     * @param post datos de la publicación
+     */
+    public void indexAfterCommit(PostSearchDocDTO post) {
+        TransactionUtils.afterCommit(() -> {
+            index(post);
+            publish(post.id().toString());
+        });
+    }
+
+    /**
+     * Quita una publicación del índice después del commit de la transacción actual.
+     *
+     * @param postId ID de la publicación
+     */
+    public void removeAfterCommit(Long postId) {
+        TransactionUtils.afterCommit(() -> {
+            remove(postId);
+            publish(postId.toString());
+        });
+    }
+
+    /**
+     * Aplica un cambio publicado por otro nodo en {@link #CHANNEL}.
+     *
+     * @param message ID del nodo de origen y el ID del post cambiado, o {@code rebuild}
+     */
+    public void onMessage(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        if (separator < 0 || nodeId.equals(message.substring(0, separator))) {
+            return;
+        }
+        String body = message.substring(separator + 1);
+        if (REBUILD.equals(body)) {
+            rebuildAsync();
+            return;
+        }
+        Long postId;
+        try {
+            postId = Long.valueOf(body);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed search index message: {}", message);
+            return;
+        }
+        try {
+            List<PostSearchDocDTO> posts = postRepository.findSearchDocsBetween(postId, postId);
+            if (posts.isEmpty()) {
+                remove(postId);
+            } else {
+                index(posts.get(0));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not sync post {} into the search index: {}", postId, e.getMessage());
+        }
+    }
+
+    private void publish(String body) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + body);
+        } catch (DataAccessException e) {
+            log.warn("Could not publish search index change {}: {}", body, e.getMessage());
+        }
+    }
+
+    private void index(PostSearchDocDTO post) {
+        writerLock.readLock().lock();
+        try {
+            writer.updateDocument(new Term(ID, post.id().toString()), toDocument(post));
+            dirty.set(true);
+        } catch (IOException e) {
+            log.warn("Could not index post {}: {}", post.id(), e.getMessage());
+        } finally {
+            writerLock.readLock().unlock();
+        }
+    }
+
+    private void remove(Long postId) {
+        writerLock.readLock().lock();
+        try {
+            writer.deleteDocuments(new Term(ID, postId.toString()));
+            dirty.set(true);
+        } catch (IOException e) {
+            log.warn("Could not remove post {} from the search index: {}", postId, e.getMessage());
+        } finally {
+            writerLock.readLock().unlock();
+        }
+    }
+
+    private Document toDocument(PostSearchDocDTO post) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, post.id().toString(), Field.Store.NO));
+        doc.add(new NumericDocValuesField(ID_SORT, post.id()));
+        doc.add(new TextField(TITLE, Objects.toString(post.title(), ""), Field.Store.NO));
+        doc.add(new TextField(CONTENT, Objects.toString(post.content(), ""), Field.Store.NO));
+        if (post.categoryId() != null) {
+            doc.add(new StringField(CATEGORY, post.categoryId().toString(), Field.Store.NO));
+        }
+        return doc;
+    }
+
+    /**
+     * Resultado de una búsqueda.
+     *
+     * @param id    ID de la publicación
+     * @param score relevancia BM25
+     */
+    public record Hit(Long id, float score) {
+    }
+
+    /**
+     * Busca publicaciones por texto libre, ordenadas por relevancia.
+     *
+     * El texto se interpreta sin operadores (ni comillas, ni comodines, ni AND/OR/NOT): cada término suma relevancia.
+     *
+     * @param text       texto a buscar
+     * @param categoryId categoría por la que filtrar, o null para todas
+     * @param after      posición del último resultado de la página anterior, o null para la primera
+     * @param limit      cantidad máxima de resultados
+     * @return resultados en orden de relevancia
+     * @throws IllegalArgumentException si el texto no contiene términos buscables
+     */
+    public List<Hit> search(String text, Long categoryId, CursorUtils.ScoreCursor after, int limit) {
+        Query query = buildQuery(text, categoryId);
+        SearcherManager manager;
+        IndexSearcher searcher;
+        // discardRebuild() cierra el manager con el lock de escritura: no puede cerrarlo entre la lectura y el acquire
+        writerLock.readLock().lock();
+        try {
+            manager = searcherManager;
+            searcher = manager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writerLock.readLock().unlock();
+        }
+        try {
+            TopFieldDocs top = after == null
+                    ? searcher.search(query, limit, RELEVANCE, true)
+                    : searcher.searchAfter(new FieldDoc(Integer.MAX_VALUE, after.score(), new Object[]{after.score(), after.id()}),
+                    query, limit, RELEVANCE, true);
+            List<Hit> hits = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc scoreDoc : top.scoreDocs) {
+                FieldDoc fieldDoc = (FieldDoc) scoreDoc;
+                hits.add(new Hit((Long) fieldDoc.fields[1], (Float) fieldDoc.fields[0]));
+            }
+            return hits;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                manager.release(searcher);
+            } catch (IOException e) {
+                log.warn("Could not release index searcher: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Query buildQuery(String text, Long categoryId) {
+        // Sin banderas, el parser no reconoce ningún operador: el texto del cliente nunca es sintaxis de consulta
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(TITLE, titleBoost, CONTENT, 1f), 0);
+        Query textQuery = parser.parse(text);
+        if (textQuery == null || textQuery instanceof MatchNoDocsQuery) {
+            throw new IllegalArgumentException("Search query has no searchable terms");
+        }
+        if (categoryId == null) {
+            return textQuery;
+        }
+        return new BooleanQuery.Builder()
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(CATEGORY, categoryId.toString())), BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    /**
+     * Lanza una reconstrucción completa del índice en este nodo y la pide a los demás.
+     *
+     * @return false si ya había una reconstrucción en curso en este nodo
+     */
+    public boolean rebuildEverywhere() {
+        if (!rebuildAsync()) {
+            return false;
+        }
+        publish(REBUILD);
+        return true;
+    }
+
+    /**
+     * Lanza una reconstrucción completa del índice de este nodo en segundo plano.
+     *
+     * @return false si ya había una reconstrucción en curso
+     */
+    public boolean rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        CompletableFuture.runAsync(this::rebuild);
+        return true;
+    }
+
+    /**
+     * Indica si hay una reconstrucción en curso.
+     */
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    /**
+     * Reconstruye el índice desde la base de datos.
+     *
+     * Recorre los IDs de los posts por keyset y reparte los rangos entre varios hilos, que leen e indexan
+     * cada bloque en paralelo ({@link IndexWriter} admite escrituras concurrentes). Mientras dura,
+     * las búsquedas siguen viendo el índice anterior: los cambios se publican con un único commit al final.
+     *
+     * Si falla, el writer se descarta con {@code rollback()} y se reabre sobre el último commit, que es el
+     * índice previo a la reconstrucción; así un error a mitad de camino nunca persiste un índice parcial.
+     */
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads);
+        boolean done = false;
+        try {
+            // Los cambios incrementales previos quedan en el commit al que se vuelve si la reconstrucción falla
+            writer.commit();
+            writer.deleteAll();
+            List<Future<Integer>> chunks = new ArrayList<>();
+            long lastId = 0L;
+            List<Long> ids;
+            do {
+                ids = postRepository.findIdsAfter(lastId, PageRequest.of(0, rebuildChunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Long fromId = ids.get(0);
+                Long toId = ids.get(ids.size() - 1);
+                chunks.add(executor.submit(() -> indexChunk(fromId, toId)));
+                lastId = toId;
+            } while (ids.size() == rebuildChunkSize);
+
+            int total = 0;
+            for (Future<Integer> chunk : chunks) {
+                total += chunk.get();
+            }
+            writer.commit();
+            searcherManager.maybeRefresh();
+            done = true;
+            log.info("Search index rebuilt: {} posts in {} ms", total, System.currentTimeMillis() - start);
+        } catch (IOException | ExecutionException | RuntimeException e) {
+            log.error("Search index rebuild failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            if (!done) {
+                discardRebuild();
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Vuelve al último commit descartando todo lo escrito durante la reconstrucción. Las altas y ediciones
+     * incrementales recibidas mientras tanto también se descartan; la próxima reconstrucción las recupera.
+     */
+    private void discardRebuild() {
+        writerLock.writeLock().lock();
+        try {
+            SearcherManager previous = searcherManager;
+            writer.rollback();
+            openWriter();
+            previous.close();
+            log.warn("Search index rebuild rolled back to the last commit");
+        } catch (IOException e) {
+            log.error("Could not roll back the search index", e);
+        } finally {
+            writerLock.writeLock().unlock();
+        }
+    }
+
+    private int indexChunk(Long fromId, Long toId) throws IOException {
+        List<PostSearchDocDTO> posts = postRepository.findSearchDocsBetween(fromId, toId);
+        writerLock.readLock().lock();
+        try {
+            for (PostSearchDocDTO post : posts) {
+                writer.updateDocument(new Term(ID, post.id().toString()), toDocument(post));
+            }
+        } finally {
+            writerLock.readLock().unlock();
+        }
+        return posts.size();
+    }
+
+    /**
+     * Hace visibles para las búsquedas los cambios incrementales pendientes.
+     */
+    @Scheduled(fixedDelayString = "${forohub.search.refresh-ms:1000}")
+    public void refresh() throws IOException {
+        writerLock.readLock().lock();
+        try {
+            if (!rebuilding.get() && dirty.getAndSet(false)) {
+                searcherManager.maybeRefresh();
+            }
+        } finally {
+            writerLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Persiste en disco los cambios incrementales pendientes.
+     */
+    @Scheduled(fixedDelayString = "${forohub.search.commit-ms:30000}")
+    public void commit() throws IOException {
+        writerLock.readLock().lock();
+        try {
+            if (!rebuilding.get() && writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } finally {
+            writerLock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
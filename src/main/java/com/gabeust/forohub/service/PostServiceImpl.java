@@ -1,24 +1,33 @@
 package com.gabeust.forohub.service;
 
+import com.gabeust.forohub.dto.AuthorRefDTO;
+import com.gabeust.forohub.dto.CategoryDTO;
+import com.gabeust.forohub.dto.CursorPageDTO;
 import com.gabeust.forohub.dto.PageDTO;
+import com.gabeust.forohub.dto.PostCardDTO;
 import com.gabeust.forohub.dto.PostDTO;
+import com.gabeust.forohub.dto.PostSearchDocDTO;
 import com.gabeust.forohub.dto.UserStatsDTO;
-import com.gabeust.forohub.entity.Category;
 import com.gabeust.forohub.entity.Post;
-import com.gabeust.forohub.entity.User;
+import com.gabeust.forohub.entity.PostReactionCounter;
 import com.gabeust.forohub.enums.ReactionType;
 import com.gabeust.forohub.mapper.PostMapper;
 import com.gabeust.forohub.repository.*;
 import com.gabeust.forohub.service.interf.IPostService;
+import com.gabeust.forohub.util.CursorUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 /**
  * Implementación del servicio para gestionar las publicaciones (posts) del foro.
@@ -38,14 +47,26 @@ public class PostServiceImpl implements IPostService {
     private final ICategoryRepository categoryRepository;
     private final IReactionRepository reactionRepository;
     private final iCommentrepository commentRepository;
+    private final IPostReactionCounterRepository reactionCounterRepository;
+    private final PostCountCache postCountCache;
+    private final FeedCacheService feedCache;
+    private final LookupCache lookupCache;
+    private final PostSearchIndex searchIndex;
+    private final HotScoreService hotScores;
 
-    public PostServiceImpl(IPostRepository postRepository, PostMapper postMapper, IUserRepository userRepository, ICategoryRepository categoryRepository, IReactionRepository reactionRepository, iCommentrepository commnetRepository) {
+    public PostServiceImpl(IPostRepository postRepository, PostMapper postMapper, IUserRepository userRepository, ICategoryRepository categoryRepository, IReactionRepository reactionRepository, iCommentrepository commnetRepository, IPostReactionCounterRepository reactionCounterRepository, PostCountCache postCountCache, FeedCacheService feedCache, LookupCache lookupCache, PostSearchIndex searchIndex, HotScoreService hotScores) {
         this.postRepository = postRepository;
         this.postMapper = postMapper;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
         this.reactionRepository = reactionRepository;
         this.commentRepository = commnetRepository;
+        this.reactionCounterRepository = reactionCounterRepository;
+        this.postCountCache = postCountCache;
+        this.feedCache = feedCache;
+        this.lookupCache = lookupCache;
+        this.searchIndex = searchIndex;
+        this.hotScores = hotScores;
     }
     /**
      * Obtiene todas las publicaciones con sus reacciones agrupadas por tipo.
@@ -60,49 +81,118 @@ public class PostServiceImpl implements IPostService {
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Post> postsPage = postRepository.findAll(pageable);
-
-        List<PostDTO> dtos = postsPage.stream()
-                .map(post -> {
-                    PostDTO dto = postMapper.toDTO(post);
-
-                    EnumMap<ReactionType, Long> reactions = new EnumMap<>(ReactionType.class);
-                    for (ReactionType type : ReactionType.values()) {
-                        long count = reactionRepository.countByPostIdAndReactionType(post.getId(), type);
-                        reactions.put(type, count);
-                    }
-
-                    return new PostDTO(
-                            dto.id(),
-                            dto.title(),
-                            dto.content(),
-                            dto.authorNick(),
-                            dto.authorId(),
-                            dto.authorImage(),
-                            dto.categoryName(),
-                            dto.createdAt(),
-                            reactions
-                    );
-                })
-                .toList();
+        return feedCache.getOrLoad(null, "page", sort, page, size,
+                () -> toPageDTO(postRepository.findCards(pageable)));
+    }
+
+    /**
+     * Obtiene una página de publicaciones de una categoría con sus reacciones agrupadas por tipo.
+     *
+     * @param categoryId ID de la categoría
+     * @param pageable   información de paginación y orden
+     * @return página de publicaciones como PageDTO
+     */
+    public PageDTO<PostDTO> findByCategoryIdPaged(Long categoryId, Pageable pageable) {
+        return feedCache.getOrLoad(categoryId, "page", pageable.getSort(), pageable.getPageNumber(), pageable.getPageSize(),
+                () -> toPageDTO(postRepository.findCardsByCategoryId(categoryId, pageable)));
+    }
+
+    /**
+     * Obtiene una página de publicaciones sin ejecutar {@code COUNT(*)}.
+     *
+     * Se leen {@code size + 1} filas para saber si la página es la última. Si se piden totales,
+     * se obtienen de la caché de conteos; si no, {@code totalElements} y {@code totalPages} valen -1.
+     *
+     * @param page      número de página (0-indexado)
+     * @param size      cantidad de publicaciones por página
+     * @param sortBy    campo por el cual ordenar
+     * @param direction dirección del ordenamiento ("asc" o "desc")
+     * @param withTotal si se deben informar los totales aproximados
+     * @return página de publicaciones como PageDTO
+     */
+    @Override
+    public PageDTO<PostDTO> findAllSliced(int page, int size, String sortBy, String direction, boolean withTotal) {
+        Sort sort = direction.equalsIgnoreCase("desc")
+                ? Sort.by(sortBy).descending()
+                : Sort.by(sortBy).ascending();
+
+        return feedCache.getOrLoad(null, withTotal ? "slice-total" : "slice", sort, page, size, () -> {
+            Slice<PostCardDTO> slice = postRepository.findCardSlice(PageRequest.of(page, size, sort));
+            return toPageDTO(slice, withTotal ? postCountCache.getTotal() : null);
+        });
+    }
+
+    /**
+     * Obtiene una página de publicaciones de una categoría sin ejecutar {@code COUNT(*)}.
+     *
+     * @param categoryId ID de la categoría
+     * @param pageable   información de paginación y orden
+     * @param withTotal  si se deben informar los totales aproximados
+     * @return página de publicaciones como PageDTO
+     */
+    public PageDTO<PostDTO> findByCategoryIdSliced(Long categoryId, Pageable pageable, boolean withTotal) {
+        return feedCache.getOrLoad(categoryId, withTotal ? "slice-total" : "slice", pageable.getSort(), pageable.getPageNumber(), pageable.getPageSize(), () -> {
+            Slice<PostCardDTO> slice = postRepository.findCardSliceByCategoryId(categoryId, pageable);
+            return toPageDTO(slice, withTotal ? postCountCache.getTotalByCategory(categoryId) : null);
+        });
+    }
+
+    /**
+     * Obtiene una página del feed "hot": publicaciones ordenadas por reacciones y comentarios
+     * con decaimiento temporal, global o de una categoría.
+     *
+     * El orden se lee del ranking mantenido en Redis; si todavía no existe o Redis no responde,
+     * se devuelven las publicaciones más recientes.
+     *
+     * @param categoryId ID de la categoría, o null para el feed global
+     * @param page       número de página (0-indexado)
+     * @param size       cantidad de publicaciones por página
+     * @return página de publicaciones como PageDTO
+     */
+    public PageDTO<PostDTO> findHotPaged(Long categoryId, int page, int size) {
+        return hotScores.findPage(categoryId, page, size)
+                .map(hot -> new PageDTO<>(
+                        toDTOsWithReactions(findCardsInOrder(hot.ids())),
+                        page,
+                        size,
+                        hot.total(),
+                        (int) ((hot.total() + size - 1) / size),
+                        (long) (page + 1) * size >= hot.total()))
+                .orElseGet(() -> categoryId == null
+                        ? findAllPaged(page, size, "createdAt", "desc")
+                        : findByCategoryIdPaged(categoryId, PageRequest.of(page, size, Sort.by("createdAt").descending())));
+    }
+
+    /**
+     * Convierte un Slice en un PageDTO. Sin total conocido, los campos de totales valen -1.
+     *
+     * @param slice porción de publicaciones
+     * @param total total aproximado de publicaciones, o null si no se pidió
+     * @return página de DTOs con reacciones
+     */
+    private PageDTO<PostDTO> toPageDTO(Slice<PostCardDTO> slice, Long total) {
+        List<PostDTO> dtos = toDTOsWithReactions(slice.getContent());
+        int size = slice.getSize();
 
         return new PageDTO<>(
                 dtos,
-                postsPage.getNumber(),
-                postsPage.getSize(),
-                postsPage.getTotalElements(),
-                postsPage.getTotalPages(),
-                postsPage.isLast()
+                slice.getNumber(),
+                size,
+                total != null ? total : -1,
+                total != null ? (int) ((total + size - 1) / size) : -1,
+                slice.isLast()
         );
     }
 
-
-    public PageDTO<PostDTO> findByCategoryIdPaged(Long categoryId, Pageable pageable) {
-        Page<Post> page = postRepository.findByCategoryId(categoryId, pageable);
-
-        List<PostDTO> dtos = page.getContent().stream()
-                .map(postMapper::toDTO)
-                .toList();
+    /**
+     * Convierte una página de proyecciones en un PageDTO, completando las reacciones
+     * de todos los posts de la página con una única consulta a los contadores.
+     *
+     * @param page página de publicaciones
+     * @return página de DTOs con reacciones
+     */
+    private PageDTO<PostDTO> toPageDTO(Page<PostCardDTO> page) {
+        List<PostDTO> dtos = toDTOsWithReactions(page.getContent());
 
         return new PageDTO<>(
                 dtos,
@@ -114,6 +204,160 @@ public class PostServiceImpl implements IPostService {
         );
     }
 
+    /**
+     * Obtiene una página de publicaciones por cursor, ordenadas de la más reciente a la más antigua.
+     *
+     * A diferencia de la paginación por offset, el costo de cada página no depende de su profundidad
+     * y no se ejecuta ningún conteo total.
+     *
+     * @param cursor cursor devuelto por la página anterior, o vacío para la primera página
+     * @param size   cantidad de publicaciones por página
+     * @return página de publicaciones con el cursor de la siguiente
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    @Override
+    public CursorPageDTO<PostDTO> findAllByCursor(String cursor, int size) {
+        List<PostCardDTO> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findFirstKeysetPage(PageRequest.of(0, size + 1));
+        } else {
+            CursorUtils.Cursor position = CursorUtils.decode(cursor);
+            posts = postRepository.findKeysetPageBefore(position.createdAt(), position.id(), PageRequest.of(0, size + 1));
+        }
+        return toCursorPageDTO(posts, size);
+    }
+
+    /**
+     * Obtiene una página de publicaciones de una categoría por cursor,
+     * ordenadas de la más reciente a la más antigua.
+     *
+     * @param categoryId ID de la categoría
+     * @param cursor     cursor devuelto por la página anterior, o vacío para la primera página
+     * @param size       cantidad de publicaciones por página
+     * @return página de publicaciones con el cursor de la siguiente
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public CursorPageDTO<PostDTO> findByCategoryIdByCursor(Long categoryId, String cursor, int size) {
+        List<PostCardDTO> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findFirstKeysetPageByCategoryId(categoryId, PageRequest.of(0, size + 1));
+        } else {
+            CursorUtils.Cursor position = CursorUtils.decode(cursor);
+            posts = postRepository.findKeysetPageBeforeByCategoryId(categoryId, position.createdAt(), position.id(), PageRequest.of(0, size + 1));
+        }
+        return toCursorPageDTO(posts, size);
+    }
+
+    /**
+     * Busca publicaciones por texto en el título y el contenido, ordenadas por relevancia (BM25).
+     *
+     * La búsqueda se resuelve en el índice invertido; la base de datos solo se consulta para
+     * cargar las publicaciones de la página por ID.
+     *
+     * @param query      texto a buscar
+     * @param categoryId categoría por la que filtrar, o null para todas
+     * @param cursor     cursor devuelto por la página anterior, o vacío para la primera página
+     * @param size       cantidad de publicaciones por página
+     * @return página de resultados con el cursor de la siguiente
+     * @throws IllegalArgumentException si la consulta está vacía o el cursor no es válido
+     */
+    public CursorPageDTO<PostDTO> search(String query, Long categoryId, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Empty search query");
+        }
+        CursorUtils.ScoreCursor after = cursor == null || cursor.isBlank() ? null : CursorUtils.decodeScore(cursor);
+
+        List<PostSearchIndex.Hit> hits = searchIndex.search(query, categoryId, after, size + 1);
+        boolean last = hits.size() <= size;
+        List<PostSearchIndex.Hit> page = last ? hits : hits.subList(0, size);
+
+        List<PostCardDTO> ordered = findCardsInOrder(page.stream().map(PostSearchIndex.Hit::id).toList());
+
+        String next = null;
+        if (!last) {
+            PostSearchIndex.Hit tail = page.get(page.size() - 1);
+            next = CursorUtils.encodeScore(tail.score(), tail.id());
+        }
+        return new CursorPageDTO<>(toDTOsWithReactions(ordered), size, next, last, -1);
+    }
+
+    /**
+     * Carga las proyecciones de los IDs indicados respetando su orden.
+     * Los IDs de posts que ya no existen se omiten.
+     */
+    private List<PostCardDTO> findCardsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostCardDTO> cards = new HashMap<>();
+        for (PostCardDTO card : postRepository.findCardsByIds(ids)) {
+            cards.put(card.id(), card);
+        }
+        return ids.stream()
+                .map(cards::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Lanza la reconstrucción completa del índice de búsqueda en segundo plano, en todos los nodos.
+     *
+     * @return false si ya había una reconstrucción en curso en este nodo
+     */
+    public boolean rebuildSearchIndex() {
+        return searchIndex.rebuildEverywhere();
+    }
+
+    /**
+     * Arma una página por cursor a partir de hasta {@code size + 1} publicaciones.
+     * La fila extra solo indica si existe una página siguiente.
+     */
+    private CursorPageDTO<PostDTO> toCursorPageDTO(List<PostCardDTO> posts, int size) {
+        boolean last = posts.size() <= size;
+        List<PostCardDTO> content = last ? posts : posts.subList(0, size);
+        String next = null;
+        if (!last) {
+            PostCardDTO tail = content.get(content.size() - 1);
+            next = CursorUtils.encode(tail.createdAt(), tail.id());
+        }
+        return new CursorPageDTO<>(toDTOsWithReactions(content), size, next, last, -1);
+    }
+
+    /**
+     * Convierte las proyecciones en DTOs, completando las reacciones de todas con una única consulta.
+     */
+    private List<PostDTO> toDTOsWithReactions(List<PostCardDTO> posts) {
+        Map<Long, Map<ReactionType, Long>> reactions = findReactions(posts.stream().map(PostCardDTO::id).toList());
+
+        return posts.stream()
+                .map(post -> post.toPostDTO(reactions.get(post.id())))
+                .toList();
+    }
+
+    /**
+     * Lee los contadores de reacciones por tipo de un conjunto de posts en una sola consulta,
+     * sin contar filas de la tabla de reacciones. Los tipos sin reacciones se completan con 0.
+     *
+     * @param postIds IDs de los posts
+     * @return mapa de ID de post a cantidad de reacciones por tipo
+     */
+    public Map<Long, Map<ReactionType, Long>> findReactions(List<Long> postIds) {
+        Map<Long, Map<ReactionType, Long>> result = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return result;
+        }
+        for (Long postId : postIds) {
+            EnumMap<ReactionType, Long> counts = new EnumMap<>(ReactionType.class);
+            for (ReactionType type : ReactionType.values()) {
+                counts.put(type, 0L);
+            }
+            result.put(postId, counts);
+        }
+        for (PostReactionCounter counter : reactionCounterRepository.findByPostIdIn(postIds)) {
+            result.get(counter.getPostId()).put(counter.getReactionType(), counter.getTotal());
+        }
+        return result;
+    }
 
     /**
      * Busca una publicación por su ID.
@@ -123,12 +367,13 @@ public class PostServiceImpl implements IPostService {
      */
     @Override
     public Optional<PostDTO> findById(Long id) {
-        return postRepository.findById(id)
-                .map(postMapper::toDTO);
+        return postRepository.findCardById(id)
+                .map(post -> post.toPostDTO(findReactions(List.of(post.id())).get(post.id())));
     }
     /**
      * Crea una nueva publicación y la guarda en la base de datos.
      * Asocia la publicación con el autor y la categoría según los datos del DTO.
+     * El autor y la categoría se resuelven desde la caché local, sin consultas adicionales.
      *
      * @param postDTO DTO con los datos de la publicación a crear
      * @return DTO de la publicación creada y guardada
@@ -139,18 +384,32 @@ public class PostServiceImpl implements IPostService {
     public PostDTO save(PostDTO postDTO) {
         Post post = postMapper.toEntity(postDTO);
 
-        User author = userRepository.findByProfile_Nick(postDTO.authorNick())
+        AuthorRefDTO author = lookupCache.findAuthorByNick(postDTO.authorNick())
                 .orElseThrow(() -> new RuntimeException("User not found: " + postDTO.authorNick()));
 
-        Category category = categoryRepository.findByName(postDTO.categoryName())
+        CategoryDTO category = lookupCache.findCategoryByName(postDTO.categoryName())
                 .orElseThrow(() -> new RuntimeException("Category not found: " + postDTO.categoryName()));
 
-        post.setAuthor(author);
-        post.setCategory(category);
+        post.setAuthor(userRepository.getReferenceById(author.id()));
+        post.setCategory(categoryRepository.getReferenceById(category.id()));
 
         Post saved = postRepository.save(post);
+        postCountCache.invalidate(category.id());
+        feedCache.evictScope(category.id());
+        searchIndex.indexAfterCommit(new PostSearchDocDTO(saved.getId(), saved.getTitle(), saved.getContent(), category.id()));
+        hotScores.recordPost(saved.getId(), category.id());
 
-        return postMapper.toDTO(saved);
+        return new PostDTO(
+                saved.getId(),
+                saved.getTitle(),
+                saved.getContent(),
+                author.nick(),
+                author.id(),
+                author.image(),
+                category.name(),
+                saved.getCreatedAt(),
+                null
+        );
     }
     /**
      * Actualiza el título y contenido de una publicación existente.
@@ -170,6 +429,9 @@ public class PostServiceImpl implements IPostService {
         existingPost.setContent(postDTO.content());
 
         Post saved = postRepository.save(existingPost);
+        feedCache.evictPost(saved.getId());
+        searchIndex.indexAfterCommit(new PostSearchDocDTO(saved.getId(), saved.getTitle(), saved.getContent(),
+                saved.getCategory() != null ? saved.getCategory().getId() : null));
         return postMapper.toDTO(saved);
     }
     /**
@@ -180,10 +442,7 @@ public class PostServiceImpl implements IPostService {
      */
     @Override
     public List<PostDTO> findByCategoryId(Long categoryId) {
-        List<Post> posts = postRepository.findByCategoryId(categoryId);
-        return posts.stream()
-                .map(postMapper::toDTO)
-                .toList();
+        return toDTOsWithReactions(postRepository.findCardsByCategoryId(categoryId));
     }
 
     /**
@@ -194,20 +453,28 @@ public class PostServiceImpl implements IPostService {
      */
     @Override
     public List<PostDTO> findByAuthorId(Long authorId) {
-        List<Post> posts = postRepository.findByAuthorId(authorId);
-        return posts.stream()
-                .map(postMapper::toDTO)
-                .toList();
+        return toDTOsWithReactions(postRepository.findCardsByAuthorId(authorId));
     }
 
     /**
-     * Elimina una publicación según su ID.
+     * Elimina una publicación según su ID junto con sus contadores de reacciones
+     * y la quita del índice de búsqueda.
      *
      * @param id ID de la publicación a eliminar
      */
+    @Transactional
     @Override
     public void deleteById(Long id) {
-        postRepository.deleteById(id);
+        postRepository.findById(id).ifPresent(post -> {
+            postRepository.delete(post);
+            reactionCounterRepository.deleteByPostId(id);
+            Long categoryId = post.getCategory() != null ? post.getCategory().getId() : null;
+            postCountCache.invalidate(categoryId);
+            feedCache.evictScope(categoryId);
+            feedCache.evictPost(id);
+            searchIndex.removeAfterCommit(id);
+            hotScores.remove(id, categoryId);
+        });
     }
 
     /**
@@ -22,11 +22,13 @@ public class ProfileServiceImpl implements IProfileService {
     private final IProfileRepository profileRepository;
     private final ProfileMapper profileMapper;
     private final IUserRepository userRepository;
+    private final LookupCache lookupCache;
 
-    public ProfileServiceImpl(IProfileRepository profileRepository, ProfileMapper profileMapper, IUserRepository userRepository) {
+    public ProfileServiceImpl(IProfileRepository profileRepository, ProfileMapper profileMapper, IUserRepository userRepository, LookupCache lookupCache) {
         this.profileRepository = profileRepository;
         this.profileMapper = profileMapper;
         this.userRepository = userRepository;
+        this.lookupCache = lookupCache;
     }
     /**
      * Guarda o actualiza un perfil de usuario.
@@ -34,6 +36,7 @@ public class ProfileServiceImpl implements IProfileService {
      * Busca el usuario asociado por ID y asigna el perfil a ese usuario.
      * Si ya existe un perfil para el usuario, actualiza los campos nick, imagen y bio.
      * Si no existe, crea uno nuevo.
+     * Al actualizar, invalida en la caché de búsquedas el nick anterior.
      *
      * @param dto DTO con los datos del perfil
      * @return DTO del perfil guardado o actualizado
@@ -50,6 +53,7 @@ public class ProfileServiceImpl implements IProfileService {
         Optional<Profile> existing = profileRepository.findByUser_Id(dto.userId());
         if (existing.isPresent()) {
             Profile existingProfile = existing.get();
+            lookupCache.invalidateNick(existingProfile.getNick());
             existingProfile.setNick(dto.nick());
             existingProfile.setImage(dto.image());
             existingProfile.setBio(dto.bio());
@@ -79,6 +83,8 @@ public class ProfileServiceImpl implements IProfileService {
     @Transactional
     @Override
     public void deleteByUserId(Long userId) {
+        profileRepository.findByUser_Id(userId)
+                .ifPresent(profile -> lookupCache.invalidateNick(profile.getNick()));
         profileRepository.deleteByUser_Id(userId);
 
     }
@@ -0,0 +1,141 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.ReactionCountDTO;
+import com.gabeust.forohub.entity.PostReactionCounter;
+import com.gabeust.forohub.enums.ReactionType;
+import com.gabeust.forohub.repository.IPostReactionCounterRepository;
+import com.gabeust.forohub.repository.IPostRepository;
+import com.gabeust.forohub.repository.IReactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Tarea periódica que recalcula los contadores de reacciones a partir de las filas de {@code Reaction}
+ * y corrige cualquier desvío.
+ *
+ * Recorre los posts en bloques ordenados por ID. Para cada bloque compara los conteos reales con
+ * los contadores guardados y, si encuentra diferencias, vuelve a contar los posts afectados dentro
+ * de una transacción y fija el valor correcto.
+ */
+@Slf4j
+@Service
+public class ReactionCounterReconciler {
+
+    private final IPostRepository postRepository;
+    private final IReactionRepository reactionRepository;
+    private final IPostReactionCounterRepository reactionCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ReactionCounterReconciler(IPostRepository postRepository,
+                                     IReactionRepository reactionRepository,
+                                     IPostReactionCounterRepository reactionCounterRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${forohub.reaction-counters.reconcile.chunk-size:500}") int chunkSize) {
+        this.postRepository = postRepository;
+        this.reactionRepository = reactionRepository;
+        this.reactionCounterRepository = reactionCounterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Recorre todos los posts y corrige los contadores desviados.
+     *
+     * @return cantidad de contadores corregidos
+     */
+    @Scheduled(initialDelayString = "${forohub.reaction-counters.reconcile.initial-delay-ms:60000}",
+            fixedDelayString = "${forohub.reaction-counters.reconcile.interval-ms:3600000}")
+    public int reconcile() {
+        int fixed = 0;
+        long lastId = 0L;
+        List<Long> postIds;
+        do {
+            postIds = postRepository.findIdsAfter(lastId, PageRequest.of(0, chunkSize));
+            if (postIds.isEmpty()) {
+                break;
+            }
+            List<Long> drifted = findDrifted(postIds);
+            if (!drifted.isEmpty()) {
+                Integer count = transactionTemplate.execute(status -> repair(drifted));
+                fixed += count != null ? count : 0;
+            }
+            lastId = postIds.get(postIds.size() - 1);
+        } while (postIds.size() == chunkSize);
+
+        if (fixed > 0) {
+            log.warn("Reaction counters reconciled: {} counters fixed", fixed);
+        }
+        return fixed;
+    }
+
+    /**
+     * Devuelve los posts del bloque cuyos contadores no coinciden con el conteo real.
+     */
+    private List<Long> findDrifted(List<Long> postIds) {
+        Map<Long, Map<ReactionType, Long>> actual = countReactions(postIds);
+        Map<Long, Map<ReactionType, Long>> stored = readCounters(postIds);
+
+        List<Long> drifted = new ArrayList<>();
+        for (Long postId : postIds) {
+            if (!actual.get(postId).equals(stored.get(postId))) {
+                drifted.add(postId);
+            }
+        }
+        return drifted;
+    }
+
+    /**
+     * Vuelve a contar los posts indicados y fija los contadores que siguen desviados.
+     */
+    private int repair(List<Long> postIds) {
+        Map<Long, Map<ReactionType, Long>> actual = countReactions(postIds);
+        Map<Long, Map<ReactionType, Long>> stored = readCounters(postIds);
+
+        int fixed = 0;
+        for (Long postId : postIds) {
+            for (ReactionType type : ReactionType.values()) {
+                long expected = actual.get(postId).get(type);
+                if (expected != stored.get(postId).get(type)) {
+                    reactionCounterRepository.setTotal(postId, type.name(), expected);
+                    fixed++;
+                }
+            }
+        }
+        return fixed;
+    }
+
+    private Map<Long, Map<ReactionType, Long>> countReactions(List<Long> postIds) {
+        Map<Long, Map<ReactionType, Long>> result = emptyCounts(postIds);
+        for (ReactionCountDTO count : reactionRepository.countGroupedByPostIds(postIds)) {
+            result.get(count.postId()).put(count.reactionType(), count.total());
+        }
+        return result;
+    }
+
+    private Map<Long, Map<ReactionType, Long>> readCounters(List<Long> postIds) {
+        Map<Long, Map<ReactionType, Long>> result = emptyCounts(postIds);
+        for (PostReactionCounter counter : reactionCounterRepository.findByPostIdIn(postIds)) {
+            result.get(counter.getPostId()).put(counter.getReactionType(), counter.getTotal());
+        }
+        return result;
+    }
+
+    private Map<Long, Map<ReactionType, Long>> emptyCounts(List<Long> postIds) {
+        Map<Long, Map<ReactionType, Long>> result = new HashMap<>();
+        for (Long postId : postIds) {
+            EnumMap<ReactionType, Long> counts = new EnumMap<>(ReactionType.class);
+            for (ReactionType type : ReactionType.values()) {
+                counts.put(type, 0L);
+            }
+            result.put(postId, counts);
+        }
+        return result;
+    }
+}
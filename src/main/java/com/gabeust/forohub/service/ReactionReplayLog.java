@@ -0,0 +1,144 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.enums.ReactionType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Registro en disco, de solo agregado, de las reacciones aceptadas por el buffer de escritura diferida.
+ *
+ * Se divide en segmentos numerados ({@code reactions-<n>.log}). Cada flush rota al segmento siguiente y,
+ * una vez confirmado en la base de datos, borra los anteriores. Cada línea guarda el estado final deseado
+ * ({@code userId,postId,TIPO} o {@code -} si no hay reacción), por lo que reaplicar un segmento es idempotente.
+ */
+@Slf4j
+class ReactionReplayLog {
+
+    private static final String PREFIX = "reactions-";
+    private static final String SUFFIX = ".log";
+    private static final String NONE = "-";
+
+    /**
+     * Entrada del registro.
+     *
+     * @param userId ID del usuario
+     * @param postId ID del post
+     * @param type   tipo de reacción deseado, o null si no debe haber reacción
+     */
+    record Entry(long userId, long postId, ReactionType type) {
+    }
+
+    private final Path dir;
+    private final boolean fsync;
+    private long segment;
+    private volatile FileChannel channel;
+
+    ReactionReplayLog(Path dir, boolean fsync) throws IOException {
+        this.dir = dir;
+        this.fsync = fsync;
+        Files.createDirectories(dir);
+        this.segment = segments().stream().mapToLong(ReactionReplayLog::segmentNumber).max().orElse(0L);
+    }
+
+    /**
+     * Lee todas las entradas de los segmentos existentes, en el orden en que se escribieron.
+     * Las líneas ilegibles (por ejemplo, cortadas por una caída a mitad de escritura) se descartan.
+     */
+    List<Entry> readAll() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (Path file : segments()) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                try {
+                    entries.add(parse(line));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping unreadable line in {}: '{}'", file.getFileName(), line);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @throws IllegalArgumentException si la línea no tiene el formato {@code userId,postId,TIPO}
+     */
+    private static Entry parse(String line) {
+        String[] parts = line.split(",");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected 3 fields");
+        }
+        ReactionType type = NONE.equals(parts[2]) ? null : ReactionType.valueOf(parts[2]);
+        return new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), type);
+    }
+
+    /**
+     * Abre un segmento nuevo para escribir y devuelve el número del anterior.
+     * Todo lo escrito hasta ahora queda en segmentos con número menor o igual al devuelto.
+     */
+    synchronized long rotate() throws IOException {
+        long previous = segment;
+        if (channel != null) {
+            channel.close();
+        }
+        segment++;
+        channel = FileChannel.open(dir.resolve(PREFIX + segment + SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return previous;
+    }
+
+    /**
+     * Agrega una entrada al segmento actual. Admite escrituras concurrentes.
+     */
+    void append(long userId, long postId, ReactionType type) {
+        String line = userId + "," + postId + "," + (type == null ? NONE : type.name()) + "\n";
+        try {
+            channel.write(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Borra los segmentos con número menor o igual al indicado.
+     */
+    void deleteUpTo(long lastSegment) throws IOException {
+        for (Path file : segments()) {
+            if (segmentNumber(file) <= lastSegment) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)))
+                    .toList();
+        }
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
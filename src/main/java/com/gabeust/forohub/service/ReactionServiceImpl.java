@@ -1,43 +1,65 @@
 package com.gabeust.forohub.service;
 
+import com.gabeust.forohub.dto.AuthorRefDTO;
 import com.gabeust.forohub.dto.NotificationEvent;
+import com.gabeust.forohub.dto.PostReactionTypeDTO;
 import com.gabeust.forohub.dto.ReactionDTO;
-import com.gabeust.forohub.entity.Post;
+import com.gabeust.forohub.dto.ReactionResultDTO;
+import com.gabeust.forohub.dto.ReactionStateDTO;
 import com.gabeust.forohub.entity.Reaction;
-import com.gabeust.forohub.entity.User;
-import com.gabeust.forohub.kafka.NotificationProducer;
+import com.gabeust.forohub.enums.ReactionOutcome;
+import com.gabeust.forohub.enums.ReactionType;
+import com.gabeust.forohub.kafka.NotificationOutboxWriter;
 import com.gabeust.forohub.mapper.ReactionMapper;
-import com.gabeust.forohub.repository.IPostRepository;
+import com.gabeust.forohub.repository.IPostReactionCounterRepository;
 import com.gabeust.forohub.repository.IReactionRepository;
-import com.gabeust.forohub.repository.IUserRepository;
 import com.gabeust.forohub.service.interf.IReactionService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 @Service
 /**
  * Implementación del servicio para gestionar las reacciones en los posts del foro.
  *
  * Proporciona métodos para buscar, guardar, actualizar y eliminar reacciones,
  * vinculadas a usuarios y posts específicos.
- * Además, integra eventos Kafka para notificaciones cuando se crean o actualizan reacciones.
+ * Además, registra eventos de notificación en el outbox (publicados luego en Kafka) cuando se crean reacciones.
  */
 public class ReactionServiceImpl implements IReactionService {
 
+    // Reintentos ante escrituras concurrentes sobre la misma reacción
+    private static final int MAX_ATTEMPTS = 3;
+
     private final IReactionRepository reactionRepository;
     private final ReactionMapper reactionMapper;
-    private final IUserRepository userRepository;
-    private final IPostRepository postRepository;
-    private final NotificationProducer notificationProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationOutboxWriter notificationOutbox;
+    private final IPostReactionCounterRepository reactionCounterRepository;
+    private final FeedCacheService feedCache;
+    private final LookupCache lookupCache;
+    private final HotScoreService hotScores;
+    private final UserReactionCache userReactionCache;
+    // Solo presente con forohub.reactions.write-behind.enabled=true
+    private final ReactionWriteBuffer writeBuffer;
 
-    public ReactionServiceImpl(IReactionRepository reactionRepository, ReactionMapper reactionMapper, IUserRepository userRepository, IPostRepository postRepository, NotificationProducer notificationProducer) {
+    public ReactionServiceImpl(IReactionRepository reactionRepository, ReactionMapper reactionMapper, TransactionTemplate transactionTemplate, NotificationOutboxWriter notificationOutbox, IPostReactionCounterRepository reactionCounterRepository, FeedCacheService feedCache, LookupCache lookupCache, HotScoreService hotScores, UserReactionCache userReactionCache, Optional<ReactionWriteBuffer> writeBuffer) {
         this.reactionRepository = reactionRepository;
         this.reactionMapper = reactionMapper;
-        this.userRepository = userRepository;
-        this.postRepository = postRepository;
-        this.notificationProducer = notificationProducer;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationOutbox = notificationOutbox;
+        this.reactionCounterRepository = reactionCounterRepository;
+        this.feedCache = feedCache;
+        this.lookupCache = lookupCache;
+        this.hotScores = hotScores;
+        this.userReactionCache = userReactionCache;
+        this.writeBuffer = writeBuffer.orElse(null);
     }
     /**
      * Devuelve todas las reacciones guardadas.
@@ -50,6 +72,18 @@ public class ReactionServiceImpl implements IReactionService {
                 .map(reactionMapper::toDTO)
                 .toList();
     }
+    /**
+     * Recorre todas las reacciones con un cursor de solo avance, entregándolas de a una
+     * sin cargarlas todas en memoria. La transacción queda abierta mientras dura el recorrido.
+     *
+     * @param sink receptor de cada reacción
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<ReactionDTO> sink) {
+        try (Stream<ReactionDTO> reactions = reactionRepository.streamAll()) {
+            reactions.forEach(sink);
+        }
+    }
     /**
      * Busca una reacción por su ID.
      *
@@ -62,69 +96,185 @@ public class ReactionServiceImpl implements IReactionService {
                 .map(reactionMapper::toDTO);
     }
     /**
-     * Guarda o actualiza una reacción.
+     * Devuelve la reacción del usuario autenticado sobre cada uno de los posts indicados.
+     *
+     * Los posts que no estén en la caché por usuario se resuelven con una única consulta {@code IN}.
+     * Si el buffer de escritura diferida está activo, se superponen las reacciones aún no volcadas.
+     *
+     * @param email   email del usuario autenticado
+     * @param postIds IDs de los posts
+     * @return mapa ID de post → tipo de reacción; los posts sin reacción no aparecen
+     * @throws RuntimeException si no se encuentra el usuario
+     */
+    public Map<Long, ReactionType> findMine(String email, List<Long> postIds) {
+        Long userId = lookupCache.findUserIdByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found: " + email));
+        List<Long> ids = postIds.stream().distinct().toList();
+
+        Map<Long, ReactionType> types = new HashMap<>();
+        Map<Long, Optional<ReactionType>> cached = userReactionCache.getAll(userId, ids);
+        cached.forEach((postId, type) -> type.ifPresent(value -> types.put(postId, value)));
+
+        List<Long> missing = ids.stream().filter(id -> !cached.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            Map<Long, ReactionType> loaded = new HashMap<>();
+            for (PostReactionTypeDTO row : reactionRepository.findTypesByUserIdAndPostIds(userId, missing)) {
+                loaded.put(row.postId(), row.reactionType());
+            }
+            userReactionCache.fill(userId, missing, loaded);
+            types.putAll(loaded);
+        }
+        if (writeBuffer != null) {
+            writeBuffer.overlay(userId, ids, types);
+        }
+        return types;
+    }
+    /**
+     * Aplica la reacción de un usuario sobre un post.
+     *
+     * Una sola consulta lee el post y la reacción actual del usuario; luego se aplica una única escritura condicional:
+     * - mismo tipo: se borra solo si sigue teniendo ese tipo (toggle off);
+     * - otro tipo: se cambia solo si sigue teniendo el tipo leído;
+     * - sin reacción: se inserta solo si sigue sin existir, apoyándose en la restricción única (usuario, post).
+     * Si la escritura no afecta filas, otra petición concurrente ganó: se reintenta en una transacción nueva
+     * con el estado actualizado, por lo que dos clics simultáneos nunca generan reacciones duplicadas.
      *
-     * Busca el usuario y el post asociados mediante nick y postId.
-     * Si ya existe una reacción para ese usuario y post:
-     * - Si el tipo de reacción es igual al nuevo, elimina la reacción (toggle off).
-     * - Si es diferente, actualiza el tipo de reacción.
-     * Si no existe, crea una nueva reacción.
+     * Los contadores del post se actualizan en la misma transacción. Si la reacción es nueva y el usuario
+     * no es el autor del post, se registra un evento de notificación en el outbox.
      *
-     * También envía un evento de notificación si el usuario que reacciona no es el autor del post.
+     * Con el buffer de escritura diferida activo, la reacción se registra en memoria y se vuelca a la base
+     * en el siguiente flush; una reacción creada se devuelve todavía sin ID.
      *
-     * @param reactionDTO DTO con datos de la reacción a guardar o actualizar
-     * @return DTO de la reacción guardada/actualizada, o null si se eliminó (toggle off)
+     * @param reactionDTO DTO con datos de la reacción
+     * @return resultado (creada, cambiada o quitada) con la reacción vigente
      * @throws RuntimeException si no se encuentra usuario o post
      */
-    @Transactional
     @Override
-    public ReactionDTO save(ReactionDTO reactionDTO) {
-        User author = userRepository.findByProfile_Nick(reactionDTO.nick())
+    public ReactionResultDTO save(ReactionDTO reactionDTO) {
+        AuthorRefDTO author = lookupCache.findAuthorByNick(reactionDTO.nick())
                 .orElseThrow(() -> new RuntimeException("User not found: " + reactionDTO.nick()));
-        Post post = postRepository.findById(reactionDTO.postId())
+
+        if (writeBuffer != null) {
+            return saveBuffered(author, reactionDTO.postId(), reactionDTO.reactionType());
+        }
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            ReactionResultDTO result = transactionTemplate.execute(status -> tryApply(author, reactionDTO));
+            if (result != null) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Concurrent updates on reaction of " + author.nick() + " to post " + reactionDTO.postId());
+    }
+
+    /**
+     * Intenta aplicar la reacción a partir del estado actual.
+     *
+     * @return el resultado, o null si una escritura concurrente invalidó el estado leído
+     */
+    private ReactionResultDTO tryApply(AuthorRefDTO author, ReactionDTO reactionDTO) {
+        ReactionType type = reactionDTO.reactionType();
+        ReactionStateDTO state = reactionRepository.findState(author.id(), reactionDTO.postId())
                 .orElseThrow(() -> new RuntimeException(("Post with ID: " + reactionDTO.postId() + " not found")));
+        Long postId = state.postId();
 
-        Optional<Reaction> existing = reactionRepository.findByUserIdAndPostId(author.getId(), post.getId());
+        if (state.reactionId() == null) {
+            Optional<Long> created = reactionRepository.insertIfAbsent(author.id(), postId, type);
+            if (created.isEmpty()) {
+                return null;
+            }
+            reactionCounterRepository.increment(postId, type.name(), 1);
+            feedCache.evictPost(postId);
+            userReactionCache.put(author.id(), postId, type);
+            hotScores.recordReaction(postId, state.categoryId());
+            notifyPostAuthor(author, state, created.get());
+            return new ReactionResultDTO(ReactionOutcome.CREATED, new ReactionDTO(created.get(), type, author.nick(), postId));
+        }
 
-        if (existing.isPresent()) {
-            Reaction current = existing.get();
-            if (current.getReactionType().equals(reactionDTO.reactionType())) {
-                reactionRepository.delete(current);
-                return null; // 💡 señal de que se eliminó
-            } else {
-                current.setReactionType(reactionDTO.reactionType());
-                Reaction updated = reactionRepository.save(current);
-                return reactionMapper.toDTO(updated);
+        if (state.reactionType() == type) {
+            if (reactionRepository.deleteIfType(state.reactionId(), type) == 0) {
+                return null;
             }
+            reactionCounterRepository.increment(postId, type.name(), -1);
+            feedCache.evictPost(postId);
+            userReactionCache.put(author.id(), postId, null);
+            return new ReactionResultDTO(ReactionOutcome.REMOVED, null);
         }
 
-        Reaction newReaction = new Reaction();
-        newReaction.setUser(author);
-        newReaction.setPost(post);
-        newReaction.setReactionType(reactionDTO.reactionType());
+        if (reactionRepository.changeType(state.reactionId(), state.reactionType(), type) == 0) {
+            return null;
+        }
+        reactionCounterRepository.move(postId, state.reactionType().name(), type.name());
+        feedCache.evictPost(postId);
+        userReactionCache.put(author.id(), postId, type);
+        return new ReactionResultDTO(ReactionOutcome.CHANGED, new ReactionDTO(state.reactionId(), type, author.nick(), postId));
+    }
 
-        Reaction savedReaction  = reactionRepository.save(newReaction);
+    /**
+     * Registra la reacción en el buffer de escritura diferida. Hot score y notificación se disparan
+     * al aceptarla, sin esperar al flush.
+     *
+     * @param type tipo pedido, o null para quitar la reacción actual
+     * @return el resultado, o null si se pidió quitar una reacción inexistente
+     */
+    private ReactionResultDTO saveBuffered(AuthorRefDTO author, Long postId, ReactionType type) {
+        ReactionWriteBuffer.BufferedReaction result = writeBuffer.apply(author.id(), type,
+                () -> reactionRepository.findState(author.id(), postId)
+                        .orElseThrow(() -> new RuntimeException(("Post with ID: " + postId + " not found"))));
+        if (result == null) {
+            return null;
+        }
+        ReactionStateDTO state = result.state();
+        userReactionCache.put(author.id(), postId, result.outcome() == ReactionOutcome.REMOVED ? null : type);
+        switch (result.outcome()) {
+            case CREATED -> {
+                hotScores.recordReaction(postId, state.categoryId());
+                notifyPostAuthor(author, state, null);
+            }
+            case REMOVED -> {
+                return new ReactionResultDTO(ReactionOutcome.REMOVED, null);
+            }
+            case CHANGED -> {
+            }
+        }
+        return new ReactionResultDTO(result.outcome(), new ReactionDTO(state.reactionId(), type, author.nick(), postId));
+    }
 
-        if (!savedReaction.getUser().getId().equals(savedReaction.getPost().getAuthor().getId())) {
-            NotificationEvent event = new NotificationEvent(
-                    savedReaction.getPost().getAuthor().getId(),
-                    "REACTION",
-                    savedReaction.getUser().getProfile().getNick() + " reacted to your post.",
-                    savedReaction.getPost().getId(),
-                    null,
-                    savedReaction.getId()
-            );
-            notificationProducer.sendNotification(event);
+    /**
+     * Registra un evento de notificación para el autor del post, salvo que reaccione a su propio post.
+     */
+    private void notifyPostAuthor(AuthorRefDTO author, ReactionStateDTO state, Long reactionId) {
+        if (author.id().equals(state.postAuthorId())) {
+            return;
         }
-        return reactionMapper.toDTO(savedReaction );
+        NotificationEvent event = new NotificationEvent(
+                state.postAuthorId(),
+                "REACTION",
+                author.nick() + " reacted to your post.",
+                state.postId(),
+                null,
+                reactionId,
+                author.nick()
+        );
+        notificationOutbox.enqueue(event);
     }
     /**
-     * Elimina una reacción por su ID.
+     * Elimina una reacción por su ID y descuenta la reacción del contador del post.
      *
      * @param id ID de la reacción a eliminar
      */
+    @Transactional
     @Override
     public void deleteById(Long id) {
-        reactionRepository.deleteById(id);
+        if (writeBuffer != null) {
+            reactionRepository.findById(id).ifPresent(reaction -> saveBuffered(
+                    new AuthorRefDTO(reaction.getUser().getId(), null, null), reaction.getPost().getId(), null));
+            return;
+        }
+        reactionRepository.findById(id).ifPresent(reaction -> {
+            reactionRepository.delete(reaction);
+            reactionCounterRepository.increment(reaction.getPost().getId(), reaction.getReactionType().name(), -1);
+            feedCache.evictPost(reaction.getPost().getId());
+            userReactionCache.put(reaction.getUser().getId(), reaction.getPost().getId(), null);
+        });
     }
 }
@@ -0,0 +1,368 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.ReactionCountDTO;
+import com.gabeust.forohub.dto.ReactionStateDTO;
+import com.gabeust.forohub.enums.ReactionOutcome;
+import com.gabeust.forohub.enums.ReactionType;
+import com.gabeust.forohub.repository.IPostReactionCounterRepository;
+import com.gabeust.forohub.repository.IReactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Buffer de escritura diferida para reacciones, pensado para posts virales.
+ *
+ * Cada reacción se registra primero en memoria: el estado deseado por (usuario, post) y los deltas de los
+ * contadores por (post, tipo) en {@link LongAdder}s, que no compiten entre hilos. Cada
+ * {@code forohub.reactions.write-behind.flush-ms} se vuelca todo a MySQL en sentencias por lotes dentro de
+ * una sola transacción, en lugar de una transacción por clic sobre las mismas filas.
+ *
+ * Consistencia para quien reacciona: el estado efectivo de una reacción es el pendiente en el buffer, luego
+ * el que se está volcando y por último el de la base; las operaciones sobre una misma (usuario, post) se
+ * serializan con locks particionados.
+ *
+ * Durabilidad: antes de aceptar una reacción se escribe en un {@link ReactionReplayLog}. Al arrancar se
+ * reaplican los segmentos que no llegaron a confirmarse. Como el registro guarda estados y no deltas, la
+ * reaplicación es idempotente y los contadores de los posts afectados se recalculan desde las filas.
+ *
+ * Solo se activa con {@code forohub.reactions.write-behind.enabled=true}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "forohub.reactions.write-behind.enabled", havingValue = "true")
+public class ReactionWriteBuffer {
+
+    private static final int STRIPES = 64;
+
+    private static final String UPSERT_REACTION =
+            "INSERT INTO reaction (user_id, post_id, reaction_type) " +
+            "SELECT * FROM (SELECT ? AS user_id, p.id AS post_id, ? AS reaction_type FROM post p WHERE p.id = ?) AS src " +
+            "ON DUPLICATE KEY UPDATE reaction_type = src.reaction_type";
+    private static final String DELETE_REACTION =
+            "DELETE FROM reaction WHERE user_id = ? AND post_id = ?";
+    private static final String INCREMENT_COUNTER =
+            "INSERT INTO post_reaction_counter (post_id, reaction_type, total) " +
+            "SELECT p.id, ?, GREATEST(?, 0) FROM post p WHERE p.id = ? " +
+            "ON DUPLICATE KEY UPDATE total = GREATEST(total + ?, 0)";
+
+    private record Key(long userId, long postId) {
+    }
+
+    private record CounterKey(long postId, ReactionType type) {
+    }
+
+    /**
+     * Estado deseado de una reacción; {@code type} en null indica que no debe haber reacción.
+     */
+    private record Intent(ReactionType type) {
+    }
+
+    /**
+     * Resultado de registrar una reacción en el buffer.
+     *
+     * @param outcome si la reacción se crea, cambia o se quita
+     * @param state   estado leído de la base de datos (datos del post)
+     */
+    public record BufferedReaction(ReactionOutcome outcome, ReactionStateDTO state) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IReactionRepository reactionRepository;
+    private final IPostReactionCounterRepository reactionCounterRepository;
+    private final FeedCacheService feedCache;
+    private final ReactionReplayLog replayLog;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    // Lectura: registrar reacciones (concurrente). Escritura: rotar el buffer al volcarlo.
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    // Un flush por vez: el de @PreDestroy no puede pisar el inFlight de uno programado en curso
+    private final ReentrantLock flushSerial = new ReentrantLock();
+    private final ConcurrentHashMap<CounterKey, LongAdder> deltas = new ConcurrentHashMap<>();
+    private volatile Map<Key, Intent> pending = new ConcurrentHashMap<>();
+    private volatile Map<Key, Intent> inFlight = Map.of();
+    // Cantidad de flushes confirmados; se incrementa al vaciar inFlight
+    private volatile long flushes;
+
+    public ReactionWriteBuffer(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               IReactionRepository reactionRepository,
+                               IPostReactionCounterRepository reactionCounterRepository,
+                               FeedCacheService feedCache,
+                               @Value("${forohub.reactions.write-behind.log-dir:data/reaction-log}") String logDir,
+                               @Value("${forohub.reactions.write-behind.fsync:true}") boolean fsync) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.reactionRepository = reactionRepository;
+        this.reactionCounterRepository = reactionCounterRepository;
+        this.feedCache = feedCache;
+        this.replayLog = new ReactionReplayLog(Path.of(logDir), fsync);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Reaplica las reacciones que quedaron en el registro tras una caída y abre un segmento nuevo.
+     * Si la base de datos no responde, el arranque falla para no perder ni reordenar reacciones.
+     */
+    @PostConstruct
+    public void replay() throws IOException {
+        List<ReactionReplayLog.Entry> entries = replayLog.readAll();
+        long lastSegment = replayLog.rotate();
+        if (entries.isEmpty()) {
+            replayLog.deleteUpTo(lastSegment);
+            return;
+        }
+        // La última entrada de cada (usuario, post) es el estado final
+        Map<Key, Intent> latest = new LinkedHashMap<>();
+        for (ReactionReplayLog.Entry entry : entries) {
+            latest.put(new Key(entry.userId(), entry.postId()), new Intent(entry.type()));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            applyStates(latest);
+            recountCounters(latest.keySet().stream().map(Key::postId).distinct().toList());
+        });
+        replayLog.deleteUpTo(lastSegment);
+        log.info("Reaction write-behind log replayed: {} reactions", latest.size());
+    }
+
+    /**
+     * Registra una reacción (o su eliminación, si {@code requested} es null) sobre el estado efectivo.
+     *
+     * @param userId      ID del usuario
+     * @param requested   tipo pedido; el mismo tipo que el actual la quita, null la quita siempre
+     * @param stateLoader lee el estado de la base de datos (post y reacción actual del usuario)
+     * @return el resultado, o null si se pidió quitar una reacción que no existe
+     */
+    public BufferedReaction apply(Long userId, ReactionType requested, Supplier<ReactionStateDTO> stateLoader) {
+        // La consulta se hace fuera del lock para no demorar al flush
+        long flushesBefore = flushes;
+        ReactionStateDTO state = stateLoader.get();
+        flushLock.readLock().lock();
+        try {
+            if (flushes != flushesBefore) {
+                // Un flush se confirmó durante la lectura y ya no está en inFlight: el estado leído puede ser anterior
+                state = stateLoader.get();
+            }
+            Key key = new Key(userId, state.postId());
+            ReentrantLock stripe = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+            stripe.lock();
+            try {
+                ReactionType current = effectiveType(key, state);
+                ReactionType next = requested == null || requested == current ? null : requested;
+                if (current == null && next == null) {
+                    return null;
+                }
+                replayLog.append(userId, key.postId(), next);
+                pending.put(key, new Intent(next));
+                if (current != null) {
+                    addDelta(key.postId(), current, -1);
+                }
+                if (next != null) {
+                    addDelta(key.postId(), next, 1);
+                }
+                ReactionOutcome outcome = current == null ? ReactionOutcome.CREATED
+                        : next == null ? ReactionOutcome.REMOVED
+                        : ReactionOutcome.CHANGED;
+                return new BufferedReaction(outcome, state);
+            } finally {
+                stripe.unlock();
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Superpone a {@code types} las reacciones del usuario que todavía no se volcaron a la base.
+     *
+     * @param userId  ID del usuario
+     * @param postIds IDs de los posts consultados
+     * @param types   reacciones leídas de la base por ID de post; se modifica en el lugar
+     */
+    public void overlay(Long userId, Collection<Long> postIds, Map<Long, ReactionType> types) {
+        for (Long postId : postIds) {
+            Key key = new Key(userId, postId);
+            Intent intent = pending.get(key);
+            if (intent == null) {
+                intent = inFlight.get(key);
+            }
+            if (intent != null) {
+                if (intent.type() == null) {
+                    types.remove(postId);
+                } else {
+                    types.put(postId, intent.type());
+                }
+            }
+        }
+    }
+
+    private ReactionType effectiveType(Key key, ReactionStateDTO state) {
+        Intent intent = pending.get(key);
+        if (intent == null) {
+            intent = inFlight.get(key);
+        }
+        return intent != null ? intent.type() : state.reactionType();
+    }
+
+    private void addDelta(long postId, ReactionType type, long delta) {
+        deltas.computeIfAbsent(new CounterKey(postId, type), k -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Vuelca a MySQL lo acumulado desde el último flush.
+     *
+     * Rota el buffer y el registro bajo el lock de escritura (un instante), y aplica el lote sin bloquear
+     * a quienes siguen reaccionando. Si la base falla, el lote se devuelve al buffer sin pisar estados más
+     * nuevos y sus segmentos se conservan para el próximo intento.
+     *
+     * Los flushes nunca se superponen: si dos corrieran a la vez, el segundo reemplazaría el inFlight del
+     * primero y un reintento de este podría devolver al buffer estados ya superados por el segundo.
+     */
+    @Scheduled(fixedDelayString = "${forohub.reactions.write-behind.flush-ms:200}")
+    public void flush() throws IOException {
+        flushSerial.lock();
+        try {
+            flushBatch();
+        } finally {
+            flushSerial.unlock();
+        }
+    }
+
+    private void flushBatch() throws IOException {
+        Map<Key, Intent> batch;
+        Map<CounterKey, Long> counterDeltas = new HashMap<>();
+        long lastSegment;
+
+        flushLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            inFlight = batch;
+            pending = new ConcurrentHashMap<>();
+            deltas.forEach((key, adder) -> {
+                long delta = adder.sum();
+                if (delta != 0) {
+                    counterDeltas.put(key, delta);
+                }
+            });
+            deltas.clear();
+            lastSegment = replayLog.rotate();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                applyStates(batch);
+                applyCounterDeltas(counterDeltas);
+            });
+        } catch (RuntimeException e) {
+            log.error("Reaction write-behind flush failed, {} reactions kept for retry", batch.size(), e);
+            requeue(batch, counterDeltas);
+            return;
+        }
+
+        flushLock.writeLock().lock();
+        try {
+            inFlight = Map.of();
+            flushes++;
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        replayLog.deleteUpTo(lastSegment);
+        batch.keySet().stream().map(Key::postId).distinct().forEach(feedCache::evictPost);
+    }
+
+    private void requeue(Map<Key, Intent> batch, Map<CounterKey, Long> counterDeltas) {
+        flushLock.writeLock().lock();
+        try {
+            batch.forEach(pending::putIfAbsent);
+            counterDeltas.forEach((key, delta) -> addDelta(key.postId(), key.type(), delta));
+            inFlight = Map.of();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void applyStates(Map<Key, Intent> states) {
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        states.forEach((key, intent) -> {
+            if (intent.type() == null) {
+                deletes.add(new Object[]{key.userId(), key.postId()});
+            } else {
+                upserts.add(new Object[]{key.userId(), intent.type().name(), key.postId()});
+            }
+        });
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_REACTION, deletes);
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_REACTION, upserts);
+        }
+    }
+
+    private void applyCounterDeltas(Map<CounterKey, Long> counterDeltas) {
+        List<Object[]> rows = new ArrayList<>();
+        counterDeltas.forEach((key, delta) ->
+                rows.add(new Object[]{key.type().name(), delta, key.postId(), delta}));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INCREMENT_COUNTER, rows);
+        }
+    }
+
+    /**
+     * Recalcula desde las filas los contadores de los posts indicados.
+     */
+    private void recountCounters(List<Long> postIds) {
+        Map<Long, Map<ReactionType, Long>> totals = new HashMap<>();
+        for (Long postId : postIds) {
+            EnumMap<ReactionType, Long> counts = new EnumMap<>(ReactionType.class);
+            for (ReactionType type : ReactionType.values()) {
+                counts.put(type, 0L);
+            }
+            totals.put(postId, counts);
+        }
+        for (ReactionCountDTO count : reactionRepository.countGroupedByPostIds(postIds)) {
+            totals.get(count.postId()).put(count.reactionType(), count.total());
+        }
+        totals.forEach((postId, counts) ->
+                counts.forEach((type, total) -> reactionCounterRepository.setTotal(postId, type.name(), total)));
+    }
+
+    /**
+     * Vuelca lo pendiente antes de apagar la aplicación.
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        flush();
+        replayLog.close();
+    }
+}
@@ -0,0 +1,103 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.UnreadCountDTO;
+import com.gabeust.forohub.repository.INotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tarea periódica que compara los contadores de notificaciones no leídas en Redis con el conteo real
+ * y corrige cualquier desvío.
+ *
+ * Recorre las claves existentes con {@code SCAN} en bloques; para cada bloque cuenta las no leídas en una
+ * sola consulta agrupada y fija el valor correcto en los contadores que no coinciden.
+ */
+@Slf4j
+@Service
+public class UnreadCounterReconciler {
+
+    private final StringRedisTemplate redisTemplate;
+    private final INotificationRepository notificationRepository;
+    private final UnreadNotificationCounter unreadCounter;
+    private final int chunkSize;
+
+    public UnreadCounterReconciler(StringRedisTemplate redisTemplate,
+                                   INotificationRepository notificationRepository,
+                                   UnreadNotificationCounter unreadCounter,
+                                   @Value("${forohub.notifications.unread.reconcile.chunk-size:500}") int chunkSize) {
+        this.redisTemplate = redisTemplate;
+        this.notificationRepository = notificationRepository;
+        this.unreadCounter = unreadCounter;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Recorre todos los contadores y corrige los desviados.
+     *
+     * @return cantidad de contadores corregidos
+     */
+    @Scheduled(initialDelayString = "${forohub.notifications.unread.reconcile.initial-delay-ms:60000}",
+            fixedDelayString = "${forohub.notifications.unread.reconcile.interval-ms:3600000}")
+    public int reconcile() {
+        int fixed = 0;
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(UnreadNotificationCounter.PREFIX + "*")
+                .count(chunkSize)
+                .build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            List<String> chunk = new ArrayList<>(chunkSize);
+            while (keys.hasNext()) {
+                chunk.add(keys.next());
+                if (chunk.size() == chunkSize) {
+                    fixed += reconcileChunk(chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                fixed += reconcileChunk(chunk);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unread counter reconciliation failed: {}", e.getMessage());
+        }
+
+        if (fixed > 0) {
+            log.warn("Unread counters reconciled: {} counters fixed", fixed);
+        }
+        return fixed;
+    }
+
+    private int reconcileChunk(List<String> keys) {
+        List<String> cached = redisTemplate.opsForValue().multiGet(keys);
+        List<Long> userIds = keys.stream()
+                .map(key -> Long.valueOf(key.substring(UnreadNotificationCounter.PREFIX.length())))
+                .toList();
+        Map<Long, Long> actual = new HashMap<>();
+        for (UnreadCountDTO count : notificationRepository.countUnreadByRecipients(userIds)) {
+            actual.put(count.userId(), count.unread());
+        }
+
+        int fixed = 0;
+        for (int i = 0; i < userIds.size(); i++) {
+            String value = cached != null ? cached.get(i) : null;
+            if (value == null) {
+                continue;
+            }
+            long expected = actual.getOrDefault(userIds.get(i), 0L);
+            if (Long.parseLong(value) != expected) {
+                unreadCounter.set(userIds.get(i), expected);
+                fixed++;
+            }
+        }
+        return fixed;
+    }
+}
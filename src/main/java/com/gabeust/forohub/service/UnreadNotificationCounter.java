@@ -0,0 +1,126 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.repository.INotificationRepository;
+import com.gabeust.forohub.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contador en Redis de notificaciones no leídas por usuario ({@code notifications:unread:{userId}}).
+ *
+ * El consumidor lo incrementa cuando una notificación pasa a no leída y el servicio lo decrementa cuando
+ * se marca como leída, siempre después del commit. Los ajustes solo se aplican si el contador ya existe:
+ * si no existe, la próxima lectura lo inicializa contando en la base. {@link UnreadCounterReconciler}
+ * corrige periódicamente cualquier desvío. Si Redis no está disponible, se cuenta en la base.
+ */
+@Slf4j
+@Service
+public class UnreadNotificationCounter {
+
+    static final String PREFIX = "notifications:unread:";
+
+    // Ajusta el contador solo si existe, sin bajar de 0, y renueva su TTL
+    private static final RedisScript<Long> ADD = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+              return -1
+            end
+            local value = redis.call('INCRBY', KEYS[1], ARGV[1])
+            if value < 0 then
+              redis.call('SET', KEYS[1], 0)
+              value = 0
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            return value
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final INotificationRepository notificationRepository;
+    private final long ttlSeconds;
+
+    public UnreadNotificationCounter(StringRedisTemplate redisTemplate,
+                                     INotificationRepository notificationRepository,
+                                     @Value("${forohub.notifications.unread.ttl-seconds:604800}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.notificationRepository = notificationRepository;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    /**
+     * Devuelve la cantidad de notificaciones no leídas del usuario, inicializando el contador si no existe.
+     *
+     * @param userId ID del usuario
+     * @return cantidad de notificaciones no leídas
+     */
+    public long get(Long userId) {
+        String key = PREFIX + userId;
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Unread counter read failed for user {}: {}", userId, e.getMessage());
+            return notificationRepository.countByRecipientUserIdAndIsReadFalse(userId);
+        }
+        long unread = notificationRepository.countByRecipientUserIdAndIsReadFalse(userId);
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key, Long.toString(unread), Duration.ofSeconds(ttlSeconds));
+        } catch (DataAccessException e) {
+            log.warn("Unread counter init failed for user {}: {}", userId, e.getMessage());
+        }
+        return unread;
+    }
+
+    /**
+     * Ajusta los contadores de varios usuarios después del commit si hay una transacción activa.
+     *
+     * @param deltas ajuste por ID de usuario
+     */
+    public void addAll(Map<Long, Long> deltas) {
+        TransactionUtils.afterCommit(() -> deltas.forEach((userId, delta) -> {
+            if (delta != 0) {
+                apply(userId, delta);
+            }
+        }));
+    }
+
+    /**
+     * Ajusta el contador de un usuario después del commit si hay una transacción activa.
+     *
+     * @param userId ID del usuario
+     * @param delta  ajuste a aplicar
+     */
+    public void add(Long userId, long delta) {
+        addAll(Map.of(userId, delta));
+    }
+
+    /**
+     * Fija el valor del contador, si existe. Lo usa el reconciliador.
+     */
+    void set(Long userId, long unread) {
+        redisTemplate.opsForValue().setIfPresent(PREFIX + userId, Long.toString(unread), Duration.ofSeconds(ttlSeconds));
+    }
+
+    private void apply(Long userId, long delta) {
+        try {
+            redisTemplate.execute(ADD, List.of(PREFIX + userId), Long.toString(delta), Long.toString(ttlSeconds));
+        } catch (DataAccessException e) {
+            // Se descarta el contador para que la próxima lectura lo recalcule
+            log.warn("Unread counter update failed for user {}: {}", userId, e.getMessage());
+            try {
+                redisTemplate.delete(PREFIX + userId);
+            } catch (DataAccessException ignored) {
+                // El reconciliador lo corregirá
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.enums.ReactionType;
+import com.gabeust.forohub.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caché en Redis de la reacción de cada usuario sobre cada post, para resaltar "mi reacción" en el feed.
+ *
+ * Se guarda un hash por usuario ({@code reactions:user:{userId}}) con un campo por post: el tipo de reacción,
+ * o {@code -} si se sabe que el usuario no reaccionó. Las escrituras de reacciones actualizan el campo después
+ * del commit; las lecturas completan los campos faltantes con {@code HSETNX}, de modo que un valor leído de la
+ * base antes de una escritura nunca pisa el que dejó esa escritura.
+ *
+ * Solo se usa con {@code forohub.reactions.mine-cache.enabled=true}. Si Redis no está disponible, las lecturas
+ * van directo a la base de datos.
+ */
+@Slf4j
+@Service
+public class UserReactionCache {
+
+    private static final String PREFIX = "reactions:user:";
+    private static final String NONE = "-";
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final long ttlSeconds;
+
+    public UserReactionCache(StringRedisTemplate redisTemplate,
+                             @Value("${forohub.reactions.mine-cache.enabled:false}") boolean enabled,
+                             @Value("${forohub.reactions.mine-cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    /**
+     * Lee de la caché las reacciones del usuario sobre los posts indicados.
+     *
+     * @param userId  ID del usuario
+     * @param postIds IDs de los posts
+     * @return para cada post en caché, su tipo (vacío si no reaccionó); los posts ausentes del mapa no están
+     *         en caché. Devuelve un mapa vacío si la caché está desactivada o Redis falla
+     */
+    public Map<Long, Optional<ReactionType>> getAll(Long userId, List<Long> postIds) {
+        Map<Long, Optional<ReactionType>> cached = new HashMap<>();
+        if (!enabled || postIds.isEmpty()) {
+            return cached;
+        }
+        try {
+            List<Object> fields = postIds.stream().map(id -> (Object) id.toString()).toList();
+            List<Object> values = redisTemplate.opsForHash().multiGet(PREFIX + userId, fields);
+            for (int i = 0; i < postIds.size(); i++) {
+                Object value = values.get(i);
+                if (value != null) {
+                    cached.put(postIds.get(i), NONE.equals(value)
+                            ? Optional.empty()
+                            : Optional.of(ReactionType.valueOf(value.toString())));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("User reaction cache read failed for user {}: {}", userId, e.getMessage());
+        }
+        return cached;
+    }
+
+    /**
+     * Completa la caché con valores leídos de la base, sin pisar los que ya estén.
+     *
+     * @param userId  ID del usuario
+     * @param postIds IDs de los posts consultados en la base
+     * @param types   reacciones encontradas; los posts sin entrada se guardan como "sin reacción"
+     */
+    public void fill(Long userId, Collection<Long> postIds, Map<Long, ReactionType> types) {
+        if (!enabled || postIds.isEmpty()) {
+            return;
+        }
+        String key = PREFIX + userId;
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (Long postId : postIds) {
+                    ReactionType type = types.get(postId);
+                    redis.hSetNX(key, postId.toString(), type == null ? NONE : type.name());
+                }
+                redis.expire(key, ttlSeconds);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.warn("User reaction cache fill failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Registra la reacción vigente del usuario sobre un post, después del commit si hay una transacción activa.
+     *
+     * @param userId ID del usuario
+     * @param postId ID del post
+     * @param type   tipo de reacción, o null si ya no reacciona
+     */
+    public void put(Long userId, Long postId, ReactionType type) {
+        if (!enabled) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            String key = PREFIX + userId;
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection redis = (StringRedisConnection) connection;
+                    redis.hSet(key, postId.toString(), type == null ? NONE : type.name());
+                    redis.expire(key, ttlSeconds);
+                    return null;
+                });
+            } catch (DataAccessException e) {
+                // Un valor viejo podría quedar hasta el TTL: se descarta el campo como último recurso
+                log.warn("User reaction cache update failed for user {}: {}", userId, e.getMessage());
+                evict(key, postId);
+            }
+        });
+    }
+
+    private void evict(String key, Long postId) {
+        try {
+            redisTemplate.opsForHash().delete(key, postId.toString());
+        } catch (DataAccessException e) {
+            log.warn("User reaction cache eviction failed for {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.gabeust.forohub.service;
+import com.gabeust.forohub.dto.UserSummaryDTO;
 import com.gabeust.forohub.entity.User;
 import com.gabeust.forohub.repository.IUserRepository;
 import com.gabeust.forohub.service.interf.IUserService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 /**
  * Implementación del servicio para operaciones sobre usuarios.
  *
@@ -15,9 +19,11 @@ import java.util.Optional;
 @Service
 public class UserServiceImpl implements IUserService {
     private final IUserRepository userRepository;
+    private final LookupCache lookupCache;
 
-    public UserServiceImpl(IUserRepository userRepository) {
+    public UserServiceImpl(IUserRepository userRepository, LookupCache lookupCache) {
         this.userRepository = userRepository;
+        this.lookupCache = lookupCache;
     }
     /**
      * Obtiene todos los usuarios registrados.
@@ -28,6 +34,18 @@ public class UserServiceImpl implements IUserService {
     public List<User> findAll() {
         return userRepository.findAll();
     }
+    /**
+     * Recorre todos los usuarios con un cursor de solo avance, entregándolos de a uno
+     * sin cargarlos todos en memoria. La transacción queda abierta mientras dura el recorrido.
+     *
+     * @param sink receptor de cada usuario
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserSummaryDTO> sink) {
+        try (Stream<UserSummaryDTO> users = userRepository.streamAll()) {
+            users.forEach(sink);
+        }
+    }
     /**
      * Busca un usuario por su ID.
      *
@@ -51,15 +69,18 @@ public class UserServiceImpl implements IUserService {
     /**
      * Elimina un usuario por su ID.
      *
-     * Lanza una excepción si el usuario no existe.
+     * Lanza una excepción si el usuario no existe. Tras el commit se invalidan en la caché de búsquedas
+     * su nick y su email, para que nadie siga escribiendo con un ID que ya no existe.
      *
      * @param id identificador del usuario a eliminar
      */
+    @Transactional
     @Override
     public void deleteByid(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        lookupCache.invalidateNick(user.getNick());
+        lookupCache.invalidateEmail(user.getEmail());
         userRepository.deleteById(id);
     }
     /**
@@ -1,5 +1,6 @@
 package com.gabeust.forohub.service.interf;
 
+import com.gabeust.forohub.dto.CursorPageDTO;
 import com.gabeust.forohub.dto.PageDTO;
 import com.gabeust.forohub.dto.PostDTO;
 
@@ -8,6 +9,8 @@ import java.util.Optional;
 
 public interface IPostService {
     PageDTO<PostDTO> findAllPaged(int page, int size, String sortBy, String direction);
+    PageDTO<PostDTO> findAllSliced(int page, int size, String sortBy, String direction, boolean withTotal);
+    CursorPageDTO<PostDTO> findAllByCursor(String cursor, int size);
     Optional<PostDTO> findById(Long id);
     PostDTO save(PostDTO postDTO);
     PostDTO update(Long id, PostDTO postDTO);
@@ -1,6 +1,7 @@
 package com.gabeust.forohub.service.interf;
 
 import com.gabeust.forohub.dto.ReactionDTO;
+import com.gabeust.forohub.dto.ReactionResultDTO;
 
 import java.util.List;
 import java.util.Optional;
@@ -8,6 +9,6 @@ import java.util.Optional;
 public interface IReactionService {
     List<ReactionDTO> findAll();
     Optional<ReactionDTO> findById(Long id);
-    ReactionDTO save(ReactionDTO reactionDTO);
+    ReactionResultDTO save(ReactionDTO reactionDTO);
     void deleteById(Long id);
 }
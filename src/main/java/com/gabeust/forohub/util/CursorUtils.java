@@ -0,0 +1,103 @@
+package com.gabeust.forohub.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Utilidad para codificar y decodificar cursores opacos de paginación por keyset.
+ *
+ * Un cursor representa la posición (createdAt, id) del último elemento entregado,
+ * codificada en Base64 URL-safe para que el cliente la trate como un valor opaco.
+ * Las búsquedas usan la posición (score, id), ya que se ordenan por relevancia.
+ */
+public final class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorUtils() {
+    }
+
+    /**
+     * Posición decodificada de un cursor.
+     *
+     * @param createdAt fecha de creación del último elemento entregado
+     * @param id        ID del último elemento entregado
+     */
+    public record Cursor(LocalDateTime createdAt, Long id) {
+    }
+
+    /**
+     * Posición decodificada de un cursor de búsqueda.
+     *
+     * @param score relevancia del último elemento entregado
+     * @param id    ID del último elemento entregado
+     */
+    public record ScoreCursor(float score, Long id) {
+    }
+
+    /**
+     * Codifica la posición (createdAt, id) como un cursor opaco.
+     *
+     * @param createdAt fecha de creación del elemento
+     * @param id        ID del elemento
+     * @return cursor codificado
+     */
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor opaco.
+     *
+     * @param cursor cursor recibido del cliente
+     * @return la posición codificada en el cursor
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Codifica la posición (score, id) de un resultado de búsqueda como un cursor opaco.
+     *
+     * @param score relevancia del elemento
+     * @param id    ID del elemento
+     * @return cursor codificado
+     */
+    public static String encodeScore(float score, Long id) {
+        String raw = Float.toString(score) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor opaco de búsqueda.
+     *
+     * @param cursor cursor recibido del cliente
+     * @return la posición codificada en el cursor
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static ScoreCursor decodeScore(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ScoreCursor(Float.parseFloat(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
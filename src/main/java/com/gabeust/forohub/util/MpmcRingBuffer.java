@@ -0,0 +1,109 @@
+package com.gabeust.forohub.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola acotada sin locks para varios productores y varios consumidores (MPMC), sobre un arreglo circular.
+ *
+ * Cada celda lleva un número de secuencia que indica si está libre para el productor del turno o lista
+ * para el consumidor del turno; productores y consumidores reservan su posición con un CAS sobre su
+ * contador y nunca se bloquean entre sí. La capacidad se redondea a la siguiente potencia de dos.
+ *
+ * @param <T> tipo de los elementos
+ */
+public final class MpmcRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    public MpmcRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.slots = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Agrega un elemento si hay lugar.
+     *
+     * @param element elemento a agregar, no null
+     * @return false si la cola está llena
+     */
+    public boolean offer(T element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // diff > 0: otro productor tomó la posición, se reintenta con la siguiente
+        }
+    }
+
+    /**
+     * Quita el elemento más antiguo.
+     *
+     * @return el elemento, o null si la cola está vacía
+     */
+    public T poll() {
+        while (true) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - (position + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T element = slots.getAndSet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Quita hasta {@code max} elementos y los agrega a {@code target}.
+     *
+     * @return cantidad de elementos quitados
+     */
+    public int drainTo(List<? super T> target, int max) {
+        int drained = 0;
+        T element;
+        while (drained < max && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Cantidad aproximada de elementos en la cola.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
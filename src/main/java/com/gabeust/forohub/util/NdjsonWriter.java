@@ -0,0 +1,111 @@
+package com.gabeust.forohub.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Escribe elementos como NDJSON (un objeto JSON por línea) a medida que se leen.
+ *
+ * No acumula nada en memoria: cada elemento se serializa directamente sobre la salida. El buffer se vacía
+ * cada {@code flushEvery} elementos o cuando pasó {@code flushIntervalMs} desde el último vaciado, para que
+ * el cliente reciba datos desde el principio sin pagar un flush por fila.
+ */
+public final class NdjsonWriter {
+
+    private static final int FLUSH_EVERY = 500;
+    private static final long FLUSH_INTERVAL_MS = 200;
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private final int flushEvery;
+    private final long flushIntervalMs;
+    private int pending;
+    private long lastFlush = System.currentTimeMillis();
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out, int flushEvery, long flushIntervalMs) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        // Las líneas ya se separan con '\n'; sin separador raíz para no anteponer un espacio a cada objeto
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        this.flushEvery = flushEvery;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /**
+     * Arma una respuesta NDJSON que se escribe mientras {@code source} recorre los datos.
+     * Su tiempo límite lo fija {@link com.gabeust.forohub.config.NdjsonTimeoutInterceptor}, no el global.
+     *
+     * @param objectMapper mapper usado para serializar cada elemento
+     * @param source       recorre los datos entregando cada elemento al receptor recibido
+     * @return respuesta en streaming con tipo {@code application/x-ndjson}
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out, FLUSH_EVERY, FLUSH_INTERVAL_MS);
+            source.accept(writer::write);
+            writer.finish();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Indica si el cliente pidió NDJSON en el encabezado {@code Accept}.
+     *
+     * @param accept valor del encabezado, puede ser null
+     * @return true si acepta {@code application/x-ndjson}
+     */
+    public static boolean accepts(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            return mediaTypes.stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Escribe un elemento seguido de un salto de línea.
+     *
+     * @param value elemento a escribir
+     * @throws UncheckedIOException si el cliente cerró la conexión
+     */
+    public void write(Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+            pending++;
+            long now = System.currentTimeMillis();
+            if (pending >= flushEvery || now - lastFlush >= flushIntervalMs) {
+                generator.flush();
+                pending = 0;
+                lastFlush = now;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Vacía lo pendiente al terminar la respuesta.
+     */
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
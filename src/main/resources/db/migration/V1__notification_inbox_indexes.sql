@@ -0,0 +1,42 @@
+-- Bandeja de notificaciones paginada por cursor.
+-- La tabla puede no existir todavía en una base nueva: Flyway corre antes que ddl-auto.
+CREATE TABLE IF NOT EXISTS notifications (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    recipient_user_id BIGINT,
+    type              VARCHAR(255),
+    message           VARCHAR(255),
+    post_id           BIGINT,
+    comment_id        BIGINT,
+    reaction_id       BIGINT,
+    is_read           BIT          NOT NULL,
+    created_at        DATETIME(6),
+    actor_count       INT          NOT NULL DEFAULT 1,
+    latest_actors     VARCHAR(255),
+    group_key         VARCHAR(100),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_notification_group UNIQUE (group_key)
+) ENGINE = InnoDB;
+
+-- MySQL no tiene CREATE INDEX IF NOT EXISTS: ddl-auto puede haber creado ya alguno de estos índices.
+
+-- Bandeja completa: WHERE recipient_user_id = ? ORDER BY created_at DESC, id DESC
+SET @exists := (SELECT COUNT(*) FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'notifications'
+                  AND index_name = 'idx_notification_recipient_created_id');
+SET @ddl := IF(@exists = 0,
+               'CREATE INDEX idx_notification_recipient_created_id ON notifications (recipient_user_id, created_at, id)',
+               'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Solo no leídas: WHERE recipient_user_id = ? AND is_read = FALSE ORDER BY created_at DESC, id DESC
+SET @exists := (SELECT COUNT(*) FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'notifications'
+                  AND index_name = 'idx_notification_recipient_read_created_id');
+SET @ddl := IF(@exists = 0,
+               'CREATE INDEX idx_notification_recipient_read_created_id ON notifications (recipient_user_id, is_read, created_at, id)',
+               'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,25 @@
+-- Una reacción por (usuario, post): INSERT IGNORE en IReactionUpsertRepositoryImpl depende de esta clave.
+-- ddl-auto solo registra en el log si no puede crearla (por ejemplo, con filas duplicadas), así que se crea acá.
+-- En una base nueva la tabla todavía no existe: la crea ddl-auto, ya con la clave.
+
+SET @table_exists := (SELECT COUNT(*) FROM information_schema.tables
+                      WHERE table_schema = DATABASE() AND table_name = 'reaction');
+SET @key_exists := (SELECT COUNT(*) FROM information_schema.statistics
+                    WHERE table_schema = DATABASE() AND table_name = 'reaction'
+                      AND index_name = 'uk_reaction_user_post');
+
+-- Se conserva la reacción más antigua (menor id) de cada (usuario, post)
+SET @ddl := IF(@table_exists = 1 AND @key_exists = 0,
+               'DELETE r FROM reaction r JOIN reaction kept
+                    ON kept.user_id = r.user_id AND kept.post_id = r.post_id AND kept.id < r.id',
+               'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl := IF(@table_exists = 1 AND @key_exists = 0,
+               'ALTER TABLE reaction ADD CONSTRAINT uk_reaction_user_post UNIQUE (user_id, post_id)',
+               'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,116 @@
+package com.gabeust.forohub;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Aplica las migraciones de db/migration sobre esquemas nuevos, con la misma configuración que la aplicación
+ * (baseline-on-migrate, baseline-version=0). Cada caso usa su propio esquema en el mismo contenedor.
+ */
+@Testcontainers
+class FlywayMigrationTest {
+
+    private static final List<String> INBOX_INDEXES = List.of(
+            "idx_notification_recipient_created_id", "idx_notification_recipient_read_created_id");
+
+    // root puede crear un esquema por caso
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0").withUsername("root");
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @Test
+    void migratesAnEmptySchema() {
+        MigrateResult result = flyway("fresh").migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrationsExecuted).isEqualTo(2);
+        assertThat(indexes("fresh", "notifications")).containsAll(INBOX_INDEXES);
+    }
+
+    @Test
+    void migratesASchemaCreatedByHibernateWithTheIndexesAlreadyPresent() {
+        // Lo que deja ddl-auto=update en una base que existía antes de Flyway
+        jdbcTemplate.execute("CREATE DATABASE legacy");
+        jdbcTemplate.execute("CREATE TABLE legacy.notifications (id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                "recipient_user_id BIGINT, is_read BIT NOT NULL, created_at DATETIME(6))");
+        jdbcTemplate.execute("CREATE INDEX idx_notification_recipient_created_id " +
+                "ON legacy.notifications (recipient_user_id, created_at, id)");
+
+        MigrateResult result = flyway("legacy").migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(indexes("legacy", "notifications")).containsAll(INBOX_INDEXES);
+    }
+
+    @Test
+    void removesDuplicateReactionsKeepingTheOldestAndAddsTheUniqueKey() {
+        // Una tabla creada por ddl-auto que nunca pudo crear la clave porque ya había duplicados
+        jdbcTemplate.execute("CREATE DATABASE duplicates");
+        jdbcTemplate.execute("CREATE TABLE duplicates.reaction (id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                "reaction_type VARCHAR(255), user_id BIGINT, post_id BIGINT)");
+        jdbcTemplate.execute("INSERT INTO duplicates.reaction (id, reaction_type, user_id, post_id) VALUES " +
+                "(1, 'LIKE', 7, 10), (2, 'LOVE', 7, 10), (3, 'LIKE', 7, 10), (4, 'LIKE', 8, 10), (5, 'LIKE', 7, 11)");
+
+        MigrateResult result = flyway("duplicates").migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM duplicates.reaction ORDER BY id", Long.class))
+                .containsExactly(1L, 4L, 5L);
+        assertThat(indexes("duplicates", "reaction")).contains("uk_reaction_user_post");
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO duplicates.reaction (reaction_type, user_id, post_id) VALUES ('LIKE', 7, 10)"))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void keepsReactionsWhenTheUniqueKeyAlreadyExists() {
+        jdbcTemplate.execute("CREATE DATABASE keyed");
+        jdbcTemplate.execute("CREATE TABLE keyed.reaction (id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                "reaction_type VARCHAR(255), user_id BIGINT, post_id BIGINT, " +
+                "CONSTRAINT uk_reaction_user_post UNIQUE (user_id, post_id))");
+        jdbcTemplate.execute("INSERT INTO keyed.reaction (reaction_type, user_id, post_id) VALUES ('LIKE', 7, 10), ('LIKE', 8, 10)");
+
+        assertThat(flyway("keyed").migrate().success).isTrue();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM keyed.reaction", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void secondRunIsANoOp() {
+        flyway("rerun").migrate();
+
+        MigrateResult result = flyway("rerun").migrate();
+
+        assertThat(result.migrationsExecuted).isZero();
+    }
+
+    private Flyway flyway(String schema) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(schema)
+                .createSchemas(true)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+    }
+
+    private List<String> indexes(String schema, String table) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT index_name FROM information_schema.statistics " +
+                "WHERE table_schema = ? AND table_name = ?", String.class, schema, table);
+    }
+}
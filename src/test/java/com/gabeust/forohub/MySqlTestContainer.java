@@ -0,0 +1,20 @@
+package com.gabeust.forohub;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * MySQL en un contenedor para los tests que dependen de su comportamiento real
+ * (bloqueos, {@code INSERT IGNORE}, índices, migraciones).
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class MySqlTestContainer {
+
+    @Bean
+    @ServiceConnection
+    MySQLContainer<?> mysqlContainer() {
+        return new MySQLContainer<>("mysql:8.0");
+    }
+}
@@ -0,0 +1,46 @@
+package com.gabeust.forohub.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonTimeoutInterceptorTest {
+
+    private static final long GLOBAL_TIMEOUT_MS = 30_000;
+
+    private final NdjsonTimeoutInterceptor interceptor = new NdjsonTimeoutInterceptor(-1);
+
+    @Test
+    void ndjsonStreamGetsItsOwnTimeout() throws Exception {
+        assertThat(startAsync(MediaType.APPLICATION_NDJSON_VALUE)).isEqualTo(-1);
+    }
+
+    @Test
+    void otherAsyncResponsesKeepTheGlobalTimeout() throws Exception {
+        assertThat(startAsync(MediaType.APPLICATION_JSON_VALUE)).isEqualTo(GLOBAL_TIMEOUT_MS);
+        assertThat(startAsync(null)).isEqualTo(GLOBAL_TIMEOUT_MS);
+    }
+
+    /**
+     * Reproduce el orden de WebAsyncManager: límite global, interceptores y recién después el inicio asíncrono.
+     *
+     * @return tiempo límite con el que quedó el contexto asíncrono
+     */
+    private long startAsync(String contentType) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/comments");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setContentType(contentType);
+        StandardServletAsyncWebRequest asyncRequest = new StandardServletAsyncWebRequest(request, response);
+        asyncRequest.setTimeout(GLOBAL_TIMEOUT_MS);
+
+        interceptor.beforeConcurrentHandling(asyncRequest, () -> null);
+        asyncRequest.startAsync();
+
+        return request.getAsyncContext().getTimeout();
+    }
+}
@@ -0,0 +1,24 @@
+package com.gabeust.forohub.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabeust.forohub.service.CommentServiceImpl;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class CommentControllerTest {
+
+    private final CommentServiceImpl commentService = mock(CommentServiceImpl.class);
+    private final CommentController controller = new CommentController(commentService, new ObjectMapper());
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 101})
+    void cursorPageRejectsSizesOutOfRange(int size) {
+        assertThat(controller.getCommentsByPostByCursor(1L, "", size).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(commentService);
+    }
+}
@@ -0,0 +1,51 @@
+package com.gabeust.forohub.controller;
+
+import com.gabeust.forohub.service.PostDetailService;
+import com.gabeust.forohub.service.PostServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class PostControllerTest {
+
+    private final PostServiceImpl postService = mock(PostServiceImpl.class);
+    private final PostController controller = new PostController(postService, mock(PostDetailService.class));
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 101})
+    void cursorPagesAndSearchRejectSizesOutOfRange(int size) {
+        assertThat(controller.getAllPostsByCursor("", size).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(controller.getPostsByCategoryByCursor(1L, "", size).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(controller.searchPosts("spring", null, "", size).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(postService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 101})
+    void hotFeedRejectsSizesOutOfRange(int size) {
+        assertThat(controller.getAllPosts(0, size, "hot", "desc", false, false).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(controller.getPostsByCategory(1L, 0, size, "hot", "desc", false, false).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    void hotFeedRejectsNegativePages() {
+        assertThat(controller.getAllPosts(-1, 10, "hot", "desc", false, false).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    void hotFeedPassesValidPagesThrough() {
+        assertThat(controller.getAllPosts(0, 100, "hot", "desc", false, false).getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(postService).findHotPaged(null, 0, 100);
+    }
+}
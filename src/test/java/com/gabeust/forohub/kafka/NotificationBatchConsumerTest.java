@@ -0,0 +1,67 @@
+package com.gabeust.forohub.kafka;
+
+import com.gabeust.forohub.dto.NotificationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.DeserializationExceptionHeader;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class NotificationBatchConsumerTest {
+
+    private final NotificationCoalescer coalescer = mock(NotificationCoalescer.class);
+    private final NotificationRetryForwarder retryForwarder = mock(NotificationRetryForwarder.class);
+    private final DeadLetterPublishingRecoverer recoverer = mock(DeadLetterPublishingRecoverer.class);
+    private final NotificationBatchConsumer consumer =
+            new NotificationBatchConsumer(coalescer, retryForwarder, recoverer, new SimpleMeterRegistry());
+
+    @Test
+    void unreadableRecordGoesToDeadLetterTopicWithoutBlockingTheBatch() throws IOException {
+        NotificationEvent event = new NotificationEvent(1L, "COMMENT", "ana commented on your post.", 10L, 5L, null, "ana");
+        ConsumerRecord<String, NotificationEvent> valid = new ConsumerRecord<>("forum-notifications", 0, 0, "1", event);
+        ConsumerRecord<String, NotificationEvent> poison = new ConsumerRecord<>("forum-notifications", 0, 1, "1", null);
+        poison.headers().add(new DeserializationExceptionHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER,
+                serialize(new DeserializationException("bad json", "{".getBytes(StandardCharsets.UTF_8), false, null))));
+
+        consumer.consume(List.of(valid, poison));
+
+        verify(coalescer).store(List.of(event));
+        verify(recoverer).accept(eq(poison), any(DeserializationException.class));
+        verifyNoInteractions(retryForwarder);
+    }
+
+    @Test
+    void failedBatchFallsBackToPerEventStores() {
+        NotificationEvent event = new NotificationEvent(1L, "COMMENT", "ana commented on your post.", 10L, 5L, null, "ana");
+        RuntimeException failure = new IllegalStateException("deadlock");
+        doThrow(failure).when(coalescer).store(List.of(event));
+
+        consumer.consume(List.of(new ConsumerRecord<>("forum-notifications", 0, 0, "1", event)));
+
+        verify(retryForwarder).storeEachOrForward(List.of(event), failure);
+        verifyNoInteractions(recoverer);
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,103 @@
+package com.gabeust.forohub.kafka;
+
+import com.gabeust.forohub.MySqlTestContainer;
+import com.gabeust.forohub.config.KafkaConfig;
+import com.gabeust.forohub.dto.NotificationEvent;
+import com.gabeust.forohub.service.NotificationStreamService;
+import com.gabeust.forohub.service.UnreadNotificationCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide el consumo por lotes de punta a punta: eventos publicados en un broker embebido, consumidos por
+ * {@link NotificationBatchConsumer} y guardados con la escritura JDBC por lotes en MySQL.
+ * La cantidad de eventos se ajusta con {@code -Dforohub.benchmark.notifications}.
+ */
+@Slf4j
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(KafkaAutoConfiguration.class)
+@Import({MySqlTestContainer.class, KafkaConfig.class, NotificationCoalescer.class, NotificationBatchConsumer.class,
+        NotificationBatchThroughputTest.Metrics.class})
+@EmbeddedKafka(partitions = 1, topics = "forum-notifications", bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationBatchThroughputTest {
+
+    private static final int EVENTS = Integer.getInteger("forohub.benchmark.notifications", 20_000);
+
+    @Autowired
+    private KafkaTemplate<Object, Object> kafkaTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @MockitoBean
+    private NotificationRetryForwarder retryForwarder;
+    @MockitoBean
+    private NotificationStreamService streamService;
+    @MockitoBean
+    private UnreadNotificationCounter unreadCounter;
+
+    @Test
+    void batchConsumerStoresEveryEventInMultiRowBatches() throws Exception {
+        // Destinatarios propios de esta ejecución: cada evento es un grupo distinto, o sea una fila
+        long firstRecipient = ThreadLocalRandom.current().nextLong(1_000_000_000L, 2_000_000_000L);
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            long recipient = firstRecipient + i;
+            kafkaTemplate.send("forum-notifications", String.valueOf(recipient),
+                    new NotificationEvent(recipient, "COMMENT", "ana commented on your post.", 10L, (long) i, null, "ana"));
+        }
+        kafkaTemplate.flush();
+
+        long deadline = start + TimeUnit.MINUTES.toNanos(2);
+        int stored = 0;
+        while (stored < EVENTS && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            stored = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM notifications WHERE recipient_user_id BETWEEN ? AND ?",
+                    Integer.class, firstRecipient, firstRecipient + EVENTS - 1);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        DistributionSummary batchSize = meterRegistry.get("forohub.notifications.consumer.batch.size").summary();
+        log.info("Stored {} notifications in {} s ({} events/s), {} batches, mean batch size {}",
+                stored, String.format("%.2f", seconds), Math.round(stored / seconds),
+                batchSize.count(), String.format("%.1f", batchSize.mean()));
+
+        assertThat(stored).isEqualTo(EVENTS);
+        // Con max-batch-size=500 el consumidor no debería ver los eventos de a uno
+        assertThat(batchSize.mean()).isGreaterThan(1);
+        assertThat(batchSize.max()).isLessThanOrEqualTo(500);
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.gabeust.forohub.kafka;
+
+import com.gabeust.forohub.dto.NotificationEvent;
+import com.gabeust.forohub.entity.Notification;
+import com.gabeust.forohub.repository.INotificationRepository;
+import com.gabeust.forohub.service.NotificationStreamService;
+import com.gabeust.forohub.service.UnreadNotificationCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationCoalescerTest {
+
+    private INotificationRepository notificationRepository;
+    private NotificationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(INotificationRepository.class);
+        when(notificationRepository.lockGroups(anyCollection())).thenReturn(Map.of());
+        coalescer = new NotificationCoalescer(notificationRepository, mock(NotificationStreamService.class),
+                mock(UnreadNotificationCounter.class), true, 1440, 3);
+    }
+
+    @Test
+    void repeatedActorIsCountedOnce() {
+        Notification stored = storeAll(reaction("ana"), reaction("ana"), reaction("ana"));
+
+        assertThat(stored.getActorCount()).isEqualTo(1);
+        assertThat(stored.getMessage()).isEqualTo("ana reacted to your post.");
+    }
+
+    @Test
+    void singleOtherActorIsSingular() {
+        Notification stored = storeAll(reaction("ana"), reaction("beto"), reaction("ana"));
+
+        assertThat(stored.getActorCount()).isEqualTo(2);
+        assertThat(stored.getMessage()).isEqualTo("ana and beto reacted to your post.");
+    }
+
+    @Test
+    void manyActorsAreSummarized() {
+        Notification stored = storeAll(reaction("ana"), reaction("beto"), reaction("carla"));
+
+        assertThat(stored.getActorCount()).isEqualTo(3);
+        assertThat(stored.getMessage()).isEqualTo("carla and 2 others reacted to your post.");
+        assertThat(stored.getLatestActors()).isEqualTo("carla,beto,ana");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Notification storeAll(NotificationEvent... events) {
+        coalescer.store(List.of(events));
+        ArgumentCaptor<List<Notification>> rows = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).upsertAll(rows.capture());
+        assertThat(rows.getValue()).hasSize(1);
+        return rows.getValue().get(0);
+    }
+
+    private static NotificationEvent reaction(String actor) {
+        return new NotificationEvent(1L, "REACTION", actor + " reacted to your post.", 10L, null, null, actor);
+    }
+}
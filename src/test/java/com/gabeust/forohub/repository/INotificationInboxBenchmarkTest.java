@@ -0,0 +1,133 @@
+package com.gabeust.forohub.repository;
+
+import com.gabeust.forohub.MySqlTestContainer;
+import com.gabeust.forohub.dto.NotificationDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compara una página profunda de la bandeja por cursor contra la misma página con OFFSET, sobre una tabla
+ * de notificaciones grande. Carga varios cientos de MB, así que solo corre con
+ * {@code -Dforohub.benchmark.inbox.rows=1000000} (o la cantidad de filas que se quiera).
+ */
+@Slf4j
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MySqlTestContainer.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class INotificationInboxBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("forohub.benchmark.inbox.rows", 0);
+    private static final int PAGE = 20;
+    private static final int RECIPIENTS = 10_000;
+    private static final int CHUNK = 10_000;
+    private static final int REPETITIONS = 50;
+    private static final String INSERT = "INSERT INTO notifications (recipient_user_id, type, message, post_id, " +
+            "is_read, created_at, actor_count) VALUES (?, 'COMMENT', 'ana commented on your post.', 10, ?, ?, 1)";
+    private static final String KEYSET = "SELECT id FROM notifications WHERE recipient_user_id = ? " +
+            "AND (created_at < ? OR (created_at = ? AND id < ?)) ORDER BY created_at DESC, id DESC LIMIT " + (PAGE + 1);
+    private static final String UNREAD_KEYSET = "SELECT id FROM notifications WHERE recipient_user_id = ? AND is_read = FALSE " +
+            "AND (created_at < ? OR (created_at = ? AND id < ?)) ORDER BY created_at DESC, id DESC LIMIT " + (PAGE + 1);
+    private static final String OFFSET = "SELECT id FROM notifications WHERE recipient_user_id = ? " +
+            "ORDER BY created_at DESC, id DESC LIMIT " + PAGE + " OFFSET ?";
+
+    @Autowired
+    private INotificationRepository notificationRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deepKeysetPageStaysOnTheIndexAndBeatsOffset() {
+        assumeTrue(ROWS > 0, "set -Dforohub.benchmark.inbox.rows to run the inbox benchmark");
+
+        long firstRecipient = ThreadLocalRandom.current().nextLong(1_000_000_000L, 2_000_000_000L);
+        // Un destinatario concentra el 10 % de las filas; el resto se reparte entre los demás
+        long hot = firstRecipient;
+        int hotRows = ROWS / 10;
+        try {
+            load(firstRecipient, hotRows);
+            jdbcTemplate.execute("ANALYZE TABLE notifications");
+
+            int depth = hotRows * 9 / 10;
+            Map<String, Object> position = jdbcTemplate.queryForMap("SELECT created_at, id FROM notifications " +
+                    "WHERE recipient_user_id = ? ORDER BY created_at DESC, id DESC LIMIT 1 OFFSET ?", hot, depth - 1);
+            LocalDateTime createdAt = ((Timestamp) position.get("created_at")).toLocalDateTime();
+            Long id = ((Number) position.get("id")).longValue();
+
+            assertThat(indexUsed(KEYSET, hot, createdAt, id)).isEqualTo("idx_notification_recipient_created_id");
+            assertThat(indexUsed(UNREAD_KEYSET, hot, createdAt, id)).isEqualTo("idx_notification_recipient_read_created_id");
+
+            double firstPageMs = averageMs(() -> notificationRepository.findInboxFirstPage(hot, PageRequest.of(0, PAGE + 1)));
+            double keysetMs = averageMs(() -> notificationRepository.findInboxPageBefore(hot, createdAt, id, PageRequest.of(0, PAGE + 1)));
+            double offsetMs = averageMs(() -> jdbcTemplate.queryForList(OFFSET, Long.class, hot, depth));
+            log.info("Inbox of {} rows ({} in the hot inbox), page at depth {}: first page {} ms, keyset {} ms, offset {} ms",
+                    ROWS, hotRows, depth, format(firstPageMs), format(keysetMs), format(offsetMs));
+
+            List<NotificationDTO> page = notificationRepository.findInboxPageBefore(hot, createdAt, id, PageRequest.of(0, PAGE));
+            assertThat(page).extracting(NotificationDTO::id)
+                    .containsExactlyElementsOf(jdbcTemplate.queryForList(OFFSET, Long.class, hot, depth));
+            assertThat(keysetMs).isLessThan(offsetMs);
+        } finally {
+            jdbcTemplate.update("DELETE FROM notifications WHERE recipient_user_id BETWEEN ? AND ?",
+                    firstRecipient, firstRecipient + RECIPIENTS);
+        }
+    }
+
+    /**
+     * Inserta {@code ROWS} notificaciones en lotes. Cada tres filas comparten createdAt, así el desempate
+     * por id también entra en juego; una de cada cuatro queda leída.
+     */
+    private void load(long firstRecipient, int hotRows) {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(CHUNK);
+        for (int i = 0; i < ROWS; i++) {
+            long recipient = i < hotRows ? firstRecipient : firstRecipient + 1 + i % RECIPIENTS;
+            batch.add(new Object[]{recipient, i % 4 == 0, Timestamp.valueOf(start.plusSeconds(i / 3))});
+            if (batch.size() == CHUNK) {
+                jdbcTemplate.batchUpdate(INSERT, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, batch);
+        }
+    }
+
+    private String indexUsed(String query, long recipient, LocalDateTime createdAt, Long id) {
+        Timestamp position = Timestamp.valueOf(createdAt);
+        return (String) jdbcTemplate.queryForMap("EXPLAIN " + query, recipient, position, position, id).get("key");
+    }
+
+    private static double averageMs(Supplier<?> query) {
+        // Una vuelta de calentamiento para que las páginas del índice ya estén en el buffer pool
+        query.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < REPETITIONS; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - start) / 1e6 / REPETITIONS;
+    }
+
+    private static String format(double ms) {
+        return String.format("%.2f", ms);
+    }
+}
@@ -0,0 +1,155 @@
+package com.gabeust.forohub.repository;
+
+import com.gabeust.forohub.MySqlTestContainer;
+import com.gabeust.forohub.dto.PostCardDTO;
+import com.gabeust.forohub.entity.Category;
+import com.gabeust.forohub.entity.Post;
+import com.gabeust.forohub.entity.Profile;
+import com.gabeust.forohub.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comprueba que los listados de posts se resuelven con una sola sentencia SQL,
+ * sin cargas perezosas de autor, perfil o categoría por cada fila.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MySqlTestContainer.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class IPostRepositoryQueryCountTest {
+
+    private static final int POSTS = 5;
+
+    @Autowired
+    private IPostRepository postRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Category category;
+    private User author;
+    private final List<Long> postIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        category = entityManager.persist(new Category(null, "Spring"));
+        // Un autor distinto por post: un N+1 sobre autor o perfil se notaría en el contador
+        for (int i = 0; i < POSTS; i++) {
+            author = newAuthor(i);
+            Post post = new Post();
+            post.setTitle("Post " + i);
+            post.setContent("Contenido " + i);
+            post.setAuthor(author);
+            post.setCategory(category);
+            postIds.add(entityManager.persist(post).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void cardSliceRunsOneStatement() {
+        Slice<PostCardDTO> slice = countStatements(1,
+                () -> postRepository.findCardSlice(PageRequest.of(0, POSTS, Sort.by("createdAt"))));
+
+        assertThat(slice.getContent()).hasSize(POSTS);
+    }
+
+    @Test
+    void cardSliceByCategoryRunsOneStatement() {
+        Slice<PostCardDTO> slice = countStatements(1,
+                () -> postRepository.findCardSliceByCategoryId(category.getId(), PageRequest.of(0, POSTS)));
+
+        assertThat(slice.getContent()).hasSize(POSTS).allSatisfy(card -> {
+            assertThat(card.authorNick()).isNotNull();
+            assertThat(card.categoryName()).isEqualTo("Spring");
+        });
+    }
+
+    @Test
+    void cardPageRunsContentAndCountStatementsOnly() {
+        // Página parcial: Spring Data añade la consulta de conteo, nada más
+        Page<PostCardDTO> page = countStatements(2, () -> postRepository.findCards(PageRequest.of(0, 2)));
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(POSTS);
+    }
+
+    @Test
+    void cardPageByCategoryRunsContentAndCountStatementsOnly() {
+        Page<PostCardDTO> page = countStatements(2,
+                () -> postRepository.findCardsByCategoryId(category.getId(), PageRequest.of(0, 2)));
+
+        assertThat(page.getTotalElements()).isEqualTo(POSTS);
+    }
+
+    @Test
+    void keysetPagesRunOneStatement() {
+        List<PostCardDTO> first = countStatements(1, () -> postRepository.findFirstKeysetPage(PageRequest.of(0, 2)));
+        PostCardDTO last = first.get(first.size() - 1);
+
+        List<PostCardDTO> next = countStatements(1,
+                () -> postRepository.findKeysetPageBefore(last.createdAt(), last.id(), PageRequest.of(0, 2)));
+
+        assertThat(next).hasSize(2);
+    }
+
+    @Test
+    void keysetPagesByCategoryRunOneStatement() {
+        List<PostCardDTO> first = countStatements(1,
+                () -> postRepository.findFirstKeysetPageByCategoryId(category.getId(), PageRequest.of(0, 2)));
+        PostCardDTO last = first.get(first.size() - 1);
+
+        List<PostCardDTO> next = countStatements(1, () -> postRepository.findKeysetPageBeforeByCategoryId(
+                category.getId(), last.createdAt(), last.id(), PageRequest.of(0, 2)));
+
+        assertThat(next).hasSize(2);
+    }
+
+    @Test
+    void cardListsRunOneStatement() {
+        assertThat(countStatements(1, () -> postRepository.findCardsByIds(postIds))).hasSize(POSTS);
+        assertThat(countStatements(1, () -> postRepository.findCardsByCategoryId(category.getId()))).hasSize(POSTS);
+        assertThat(countStatements(1, () -> postRepository.findCardsByAuthorId(author.getId()))).hasSize(1);
+        assertThat(countStatements(1, () -> postRepository.findCardById(postIds.get(0)))).isPresent();
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> query) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        T result = query.get();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+        return result;
+    }
+
+    private User newAuthor(int index) {
+        User user = new User();
+        user.setEmail("card-" + index + "-" + System.nanoTime() + "@forohub.test");
+        Profile profile = new Profile();
+        profile.setNick("nick" + index);
+        profile.setUser(user);
+        user.setProfile(profile);
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,105 @@
+package com.gabeust.forohub.repository;
+
+import com.gabeust.forohub.MySqlTestContainer;
+import com.gabeust.forohub.entity.Post;
+import com.gabeust.forohub.entity.User;
+import com.gabeust.forohub.enums.ReactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MySqlTestContainer.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IReactionUpsertRepositoryTest {
+
+    @Autowired
+    private IReactionRepository reactionRepository;
+    @Autowired
+    private IUserRepository userRepository;
+    @Autowired
+    private IPostRepository postRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void insertIfAbsentReportsDuplicateAsEmpty() {
+        Post post = newPost();
+        Long userId = post.getAuthor().getId();
+
+        assertThat(reactionRepository.insertIfAbsent(userId, post.getId(), ReactionType.LIKE)).isPresent();
+        assertThat(reactionRepository.insertIfAbsent(userId, post.getId(), ReactionType.LIKE)).isEmpty();
+        assertThat(countReactions(post.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentInsertsForSameUserAndPostCreateOnlyOne() throws Exception {
+        Post post = newPost();
+        Long userId = post.getAuthor().getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CyclicBarrier start = new CyclicBarrier(2);
+
+        // Cada transacción queda abierta un rato después del insert, así la otra se bloquea sobre la clave
+        Callable<Optional<Long>> toggle = () -> transaction.execute(status -> {
+            try {
+                start.await(5, TimeUnit.SECONDS);
+                Optional<Long> created = reactionRepository.insertIfAbsent(userId, post.getId(), ReactionType.LIKE);
+                Thread.sleep(200);
+                return created;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Optional<Long>>> results = executor.invokeAll(List.of(toggle, toggle), 30, TimeUnit.SECONDS);
+            long created = 0;
+            for (Future<Optional<Long>> result : results) {
+                if (result.get().isPresent()) {
+                    created++;
+                }
+            }
+            assertThat(created).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(countReactions(post.getId())).isEqualTo(1);
+    }
+
+    private Post newPost() {
+        User user = new User();
+        user.setEmail("reaction-" + System.nanoTime() + "@forohub.test");
+        userRepository.save(user);
+        Post post = new Post();
+        post.setTitle("Post");
+        post.setContent("Contenido");
+        post.setAuthor(user);
+        return postRepository.save(post);
+    }
+
+    private int countReactions(Long postId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reaction WHERE post_id = ?", Integer.class, postId);
+    }
+}
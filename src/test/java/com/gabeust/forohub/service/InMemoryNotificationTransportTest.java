@@ -0,0 +1,86 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.NotificationEvent;
+import com.gabeust.forohub.kafka.NotificationCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class InMemoryNotificationTransportTest {
+
+    private final NotificationCoalescer coalescer = mock(NotificationCoalescer.class);
+    private final NotificationDeadLetterService deadLetterService = mock(NotificationDeadLetterService.class);
+    // Un consumidor y una espera larga: los tres eventos llegan en el mismo lote
+    private final InMemoryNotificationTransport transport = new InMemoryNotificationTransport(
+            coalescer, deadLetterService, new SimpleMeterRegistry(), 16, 1, 3, 1000, 1000);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        transport.stop();
+    }
+
+    @Test
+    void poisonEventIsDeadLetteredAndTheRestOfTheBatchIsStored() throws Exception {
+        NotificationEvent good = event(1L);
+        NotificationEvent poison = event(2L);
+        NotificationEvent other = event(3L);
+        doAnswer(invocation -> {
+            List<NotificationEvent> events = invocation.getArgument(0);
+            if (events.contains(poison)) {
+                throw new IllegalArgumentException("bad event");
+            }
+            return null;
+        }).when(coalescer).store(anyList());
+        transport.start();
+
+        List<CompletableFuture<Void>> sends = List.of(
+                transport.sendNotification(good), transport.sendNotification(poison), transport.sendNotification(other));
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(sends).allSatisfy(send -> assertThat(send).isCompleted().isNotCompletedExceptionally());
+        verify(coalescer).store(List.of(good, poison, other));
+        verify(coalescer).store(List.of(good));
+        verify(coalescer).store(List.of(other));
+        verify(deadLetterService).record(poison, "memory", "bad event");
+        verify(deadLetterService, never()).record(eq(good), anyString(), anyString());
+    }
+
+    @Test
+    void failedDeadLetterFailsOnlyThatSend() throws Exception {
+        NotificationEvent good = event(1L);
+        NotificationEvent poison = event(2L);
+        doAnswer(invocation -> {
+            List<NotificationEvent> events = invocation.getArgument(0);
+            if (events.contains(poison)) {
+                throw new IllegalArgumentException("bad event");
+            }
+            return null;
+        }).when(coalescer).store(anyList());
+        doThrow(new IllegalStateException("database down")).when(deadLetterService).record(eq(poison), anyString(), anyString());
+        transport.start();
+
+        CompletableFuture<Void> goodSend = transport.sendNotification(good);
+        CompletableFuture<Void> poisonSend = transport.sendNotification(poison);
+
+        goodSend.get(5, TimeUnit.SECONDS);
+        assertThat(poisonSend).failsWithin(5, TimeUnit.SECONDS);
+    }
+
+    private static NotificationEvent event(Long recipient) {
+        return new NotificationEvent(recipient, "COMMENT", "ana commented on your post.", 10L, recipient, null, "ana");
+    }
+}
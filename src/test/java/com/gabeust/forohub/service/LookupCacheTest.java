@@ -0,0 +1,54 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.AuthorRefDTO;
+import com.gabeust.forohub.mapper.CategoryMapper;
+import com.gabeust.forohub.repository.ICategoryRepository;
+import com.gabeust.forohub.repository.IUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LookupCacheTest {
+
+    private static final String EMAIL = "ana@forohub.com";
+
+    private final IUserRepository userRepository = mock(IUserRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final LookupCache lookupCache = new LookupCache(userRepository, mock(ICategoryRepository.class),
+            mock(CategoryMapper.class), redisTemplate, 100, 600);
+
+    @Test
+    void invalidatingAnEmailDropsTheCachedUserIdOnEveryNode() {
+        when(userRepository.findIdByEmail(EMAIL)).thenReturn(Optional.of(7L), Optional.empty());
+        assertThat(lookupCache.findUserIdByEmail(EMAIL)).contains(7L);
+
+        lookupCache.invalidateEmail(EMAIL);
+
+        verify(redisTemplate).convertAndSend(LookupCache.INVALIDATION_CHANNEL, "email:" + EMAIL);
+        assertThat(lookupCache.findUserIdByEmail(EMAIL)).isEmpty();
+        verify(userRepository, times(2)).findIdByEmail(EMAIL);
+    }
+
+    @Test
+    void emailMessageFromAnotherNodeDoesNotTouchAuthors() {
+        AuthorRefDTO author = new AuthorRefDTO(7L, "ana", null);
+        when(userRepository.findAuthorRefByNick("ana")).thenReturn(Optional.of(author));
+        when(userRepository.findIdByEmail(EMAIL)).thenReturn(Optional.of(7L));
+        lookupCache.findAuthorByNick("ana");
+        lookupCache.findUserIdByEmail(EMAIL);
+
+        lookupCache.onInvalidation("email:" + EMAIL);
+
+        assertThat(lookupCache.findAuthorByNick("ana")).contains(author);
+        verify(userRepository).findAuthorRefByNick("ana");
+        lookupCache.findUserIdByEmail(EMAIL);
+        verify(userRepository, times(2)).findIdByEmail(EMAIL);
+    }
+}
@@ -0,0 +1,147 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.MySqlTestContainer;
+import com.gabeust.forohub.dto.CursorPageDTO;
+import com.gabeust.forohub.dto.NotificationDTO;
+import com.gabeust.forohub.entity.Notification;
+import com.gabeust.forohub.repository.INotificationRepository;
+import com.gabeust.forohub.util.CursorUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Bordes de la paginación por cursor de la bandeja: filas con el mismo createdAt se desempatan por id,
+ * sin repetir ni saltear ninguna al cruzar de página.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MySqlTestContainer.class)
+class NotificationServiceInboxTest {
+
+    // Microsegundos: la precisión de DATETIME(6), así el valor leído es igual al guardado
+    private static final LocalDateTime TIE = LocalDateTime.of(2025, 3, 1, 12, 0, 0, 123_456_000);
+
+    @Autowired
+    private INotificationRepository notificationRepository;
+
+    private NotificationService notificationService;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = new NotificationService(notificationRepository, mock(UnreadNotificationCounter.class));
+        userId = ThreadLocalRandom.current().nextLong(1_000_000_000L, 2_000_000_000L);
+    }
+
+    @Test
+    void rowsWithEqualCreatedAtArePagedByIdWithoutGapsOrRepeats() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(save(TIE, false).getId());
+        }
+
+        List<Long> seen = walk(3, false);
+
+        assertThat(seen).containsExactlyElementsOf(ids.stream().sorted(Comparator.reverseOrder()).toList());
+    }
+
+    @Test
+    void pageBoundaryInsideATieContinuesWithLowerIdsThenOlderRows() {
+        Long newer = save(TIE.plusNanos(1_000), false).getId();
+        Long tieLow = save(TIE, false).getId();
+        Long tieHigh = save(TIE, false).getId();
+        Long older = save(TIE.minusNanos(1_000), false).getId();
+
+        CursorPageDTO<NotificationDTO> first = notificationService.getInbox(userId, null, 2, false);
+        assertThat(first.content()).extracting(NotificationDTO::id).containsExactly(newer, tieHigh);
+        assertThat(CursorUtils.decode(first.next())).isEqualTo(new CursorUtils.Cursor(TIE, tieHigh));
+
+        CursorPageDTO<NotificationDTO> second = notificationService.getInbox(userId, first.next(), 2, false);
+        assertThat(second.content()).extracting(NotificationDTO::id).containsExactly(tieLow, older);
+        assertThat(second.last()).isTrue();
+        assertThat(second.next()).isNull();
+    }
+
+    @Test
+    void exactlyOneFullPageHasNoNextCursor() {
+        save(TIE, false);
+        save(TIE, false);
+
+        CursorPageDTO<NotificationDTO> page = notificationService.getInbox(userId, null, 2, false);
+
+        assertThat(page.content()).hasSize(2);
+        assertThat(page.last()).isTrue();
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    void unreadInboxSkipsReadRowsInsideATie() {
+        List<Long> unread = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Notification notification = save(TIE, i % 2 == 0);
+            if (i % 2 != 0) {
+                unread.add(notification.getId());
+            }
+        }
+
+        List<Long> seen = walk(1, true);
+
+        assertThat(seen).containsExactlyElementsOf(unread.stream().sorted(Comparator.reverseOrder()).toList());
+    }
+
+    @Test
+    void cursorAtWholeSecondsRoundTrips() {
+        // LocalDateTime.toString omite los segundos en cero: el cursor tiene que seguir siendo válido
+        LocalDateTime whole = LocalDateTime.of(2025, 3, 1, 12, 0);
+        Long first = save(whole, false).getId();
+        Long second = save(whole, false).getId();
+
+        CursorPageDTO<NotificationDTO> page = notificationService.getInbox(userId, null, 1, false);
+        assertThat(page.content()).extracting(NotificationDTO::id).containsExactly(second);
+
+        CursorPageDTO<NotificationDTO> next = notificationService.getInbox(userId, page.next(), 1, false);
+        assertThat(next.content()).extracting(NotificationDTO::id).containsExactly(first);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> notificationService.getInbox(userId, "not-a-cursor", 10, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Long> walk(int size, boolean unreadOnly) {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<NotificationDTO> page = notificationService.getInbox(userId, cursor, size, unreadOnly);
+            page.content().forEach(notification -> seen.add(notification.id()));
+            cursor = page.next();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private Notification save(LocalDateTime createdAt, boolean read) {
+        Notification notification = new Notification();
+        notification.setRecipientUserId(userId);
+        notification.setType("COMMENT");
+        notification.setMessage("ana commented on your post.");
+        notification.setPostId(10L);
+        notification.setRead(read);
+        notification.setCreatedAt(createdAt);
+        return notificationRepository.saveAndFlush(notification);
+    }
+}
@@ -0,0 +1,124 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.PostCardDTO;
+import com.gabeust.forohub.dto.PostDetailDTO;
+import com.gabeust.forohub.repository.IPostRepository;
+import com.gabeust.forohub.repository.IProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostDetailServiceTest {
+
+    private final IPostRepository postRepository = mock(IPostRepository.class);
+    private final IProfileRepository profileRepository = mock(IProfileRepository.class);
+    private final PostServiceImpl postService = mock(PostServiceImpl.class);
+    private final CommentServiceImpl commentService = mock(CommentServiceImpl.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PostDetailService service = new PostDetailService(postRepository, profileRepository, postService,
+            commentService, meterRegistry, 2000, 100, 20, 2, 10);
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void defaultLimitIsSizedFromTheConnectionPool() {
+        PostDetailService derived = new PostDetailService(postRepository, profileRepository, postService,
+                commentService, meterRegistry, 2000, 100, 20, 0, 10);
+        try {
+            assertThat(derived.availableQueries()).isEqualTo(10 - PostDetailService.RESERVED_CONNECTIONS);
+        } finally {
+            derived.close();
+        }
+    }
+
+    @Test
+    void concurrentRequestsWithinThePoolAreNotDegraded() throws Exception {
+        PostDetailService derived = new PostDetailService(postRepository, profileRepository, postService,
+                commentService, meterRegistry, 2000, 500, 20, 0, 10);
+        stubPost();
+        // Cada lectura tarda 20 ms: diez vistas a la vez (40 lecturas) entran en el límite de 8 sin vencer
+        when(commentService.findFirstPageByPostId(anyLong(), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return null;
+        });
+        ExecutorService clients = Executors.newFixedThreadPool(10);
+        try {
+            List<Callable<Optional<PostDetailDTO>>> requests = IntStream.range(0, 10)
+                    .<Callable<Optional<PostDetailDTO>>>mapToObj(i -> () -> derived.findFullById(1L))
+                    .toList();
+            for (Future<Optional<PostDetailDTO>> result : clients.invokeAll(requests)) {
+                assertThat(result.get().orElseThrow().degraded()).isEmpty();
+            }
+        } finally {
+            clients.shutdownNow();
+            derived.close();
+        }
+        assertThat(meterRegistry.find("forohub.post-detail.fallbacks").counter()).isNull();
+    }
+
+    @Test
+    void slowBranchFallsBackAndIsInterrupted() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        stubPost();
+        when(commentService.findFirstPageByPostId(anyLong(), anyInt())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        long start = System.nanoTime();
+        Optional<PostDetailDTO> detail = service.findFullById(1L);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+        assertThat(detail).isPresent();
+        assertThat(detail.get().comments().content()).isEmpty();
+        assertThat(detail.get().degraded()).containsExactly(PostDetailDTO.COMMENTS);
+        assertThat(meterRegistry.get("forohub.post-detail.fallbacks")
+                .tag("branch", PostDetailDTO.COMMENTS).tag("reason", "timeout").counter().count()).isEqualTo(1);
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void failedBranchIsReportedAsAnError() {
+        stubPost();
+        when(profileRepository.findAuthorProfileByPostId(anyLong())).thenThrow(new IllegalStateException("DB down"));
+
+        PostDetailDTO detail = service.findFullById(1L).orElseThrow();
+
+        assertThat(detail.author()).isNull();
+        assertThat(detail.degraded()).containsExactly(PostDetailDTO.AUTHOR);
+        assertThat(meterRegistry.get("forohub.post-detail.fallbacks")
+                .tag("branch", PostDetailDTO.AUTHOR).tag("reason", "error").counter().count()).isEqualTo(1);
+    }
+
+    private void stubPost() {
+        when(postRepository.findCardById(1L)).thenReturn(Optional.of(
+                new PostCardDTO(1L, "Post", "Contenido", "ana", 7L, null, "General", LocalDateTime.now())));
+        when(postService.findReactions(List.of(1L))).thenReturn(Map.of());
+        when(profileRepository.findAuthorProfileByPostId(anyLong())).thenReturn(Optional.empty());
+    }
+}
@@ -0,0 +1,134 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.PostSearchDocDTO;
+import com.gabeust.forohub.repository.IPostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostSearchIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private IPostRepository postRepository;
+    private StringRedisTemplate redisTemplate;
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        postRepository = mock(IPostRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        index = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Test
+    void queryOperatorsAreTreatedAsText() throws Exception {
+        index.indexAfterCommit(new PostSearchDocDTO(1L, "Spring and Java", "Contenido", null));
+        index.refresh();
+
+        assertThat(index.search("java AND", null, null, 10)).extracting(PostSearchIndex.Hit::id).containsExactly(1L);
+        assertThat(index.search("\"spring* (unbalanced -", null, null, 10)).extracting(PostSearchIndex.Hit::id)
+                .containsExactly(1L);
+        assertThatThrownBy(() -> index.search("  ", null, null, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void failedRebuildKeepsThePreviousIndex() throws Exception {
+        index.indexAfterCommit(new PostSearchDocDTO(1L, "Spring", "Contenido", null));
+        index.commit();
+        when(postRepository.findIdsAfter(anyLong(), any())).thenReturn(List.of(1L));
+        when(postRepository.findSearchDocsBetween(anyLong(), anyLong())).thenThrow(new IllegalStateException("DB down"));
+
+        assertThat(index.rebuildAsync()).isTrue();
+        for (int i = 0; i < 500 && index.isRebuilding(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(index.isRebuilding()).isFalse();
+        index.commit();
+        index.close();
+
+        index = open();
+        assertThat(index.search("spring", null, null, 10)).extracting(PostSearchIndex.Hit::id).containsExactly(1L);
+    }
+
+    @Test
+    void localChangesArePublishedForOtherNodes() {
+        index.indexAfterCommit(new PostSearchDocDTO(1L, "Spring", "Contenido", null));
+        index.removeAfterCommit(2L);
+
+        verify(redisTemplate).convertAndSend(eq(PostSearchIndex.CHANNEL), endsWith("|1"));
+        verify(redisTemplate).convertAndSend(eq(PostSearchIndex.CHANNEL), endsWith("|2"));
+    }
+
+    @Test
+    void changeFromAnotherNodeIsReadFromTheDatabase() throws Exception {
+        when(postRepository.findSearchDocsBetween(1L, 1L)).thenReturn(List.of(new PostSearchDocDTO(1L, "Spring", "Contenido", null)));
+        index.onMessage("other-node|1");
+        index.refresh();
+        assertThat(index.search("spring", null, null, 10)).extracting(PostSearchIndex.Hit::id).containsExactly(1L);
+
+        // El post ya no existe en la base: el otro nodo lo borró
+        when(postRepository.findSearchDocsBetween(1L, 1L)).thenReturn(List.of());
+        index.onMessage("other-node|1");
+        index.refresh();
+        assertThat(index.search("spring", null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void ownAndMalformedMessagesAreIgnored() {
+        index.indexAfterCommit(new PostSearchDocDTO(1L, "Spring", "Contenido", null));
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(PostSearchIndex.CHANNEL), published.capture());
+
+        index.onMessage(published.getValue());
+        index.onMessage("other-node|not-a-number");
+        index.onMessage("no-separator");
+
+        verify(postRepository, never()).findSearchDocsBetween(anyLong(), anyLong());
+    }
+
+    @Test
+    void searchDuringRollbackNeverSeesAClosedSearcher() throws Exception {
+        index.indexAfterCommit(new PostSearchDocDTO(1L, "Spring", "Contenido", null));
+        index.commit();
+        when(postRepository.findIdsAfter(anyLong(), any())).thenReturn(List.of(1L));
+        when(postRepository.findSearchDocsBetween(anyLong(), anyLong())).thenThrow(new IllegalStateException("DB down"));
+
+        // Cada reconstrucción fallida cierra el SearcherManager anterior mientras se sigue buscando
+        for (int i = 0; i < 20; i++) {
+            index.rebuildAsync();
+            while (index.isRebuilding()) {
+                assertThat(index.search("spring", null, null, 10)).extracting(PostSearchIndex.Hit::id).containsExactly(1L);
+            }
+        }
+    }
+
+    private PostSearchIndex open() throws Exception {
+        PostSearchIndex opened = new PostSearchIndex(postRepository, redisTemplate, dir.toString(), 2f, 10, 2);
+        opened.open();
+        return opened;
+    }
+}
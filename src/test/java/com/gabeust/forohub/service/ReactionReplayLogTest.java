@@ -0,0 +1,43 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.enums.ReactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactionReplayLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readAllReturnsEntriesInWriteOrder() throws Exception {
+        ReactionReplayLog log = new ReactionReplayLog(dir, false);
+        log.rotate();
+        log.append(1, 10, ReactionType.LIKE);
+        log.append(1, 10, null);
+        log.rotate();
+        log.append(2, 20, ReactionType.LIKE);
+        log.close();
+
+        assertThat(new ReactionReplayLog(dir, false).readAll()).containsExactly(
+                new ReactionReplayLog.Entry(1, 10, ReactionType.LIKE),
+                new ReactionReplayLog.Entry(1, 10, null),
+                new ReactionReplayLog.Entry(2, 20, ReactionType.LIKE));
+    }
+
+    @Test
+    void readAllSkipsLinesTornByACrash() throws Exception {
+        Files.write(dir.resolve("reactions-1.log"), List.of("1,10,LIKE", "2,20,LI", "3,3", "4,x,LIKE", "12,"),
+                StandardCharsets.UTF_8);
+
+        assertThat(new ReactionReplayLog(dir, false).readAll())
+                .containsExactly(new ReactionReplayLog.Entry(1, 10, ReactionType.LIKE));
+    }
+}
@@ -0,0 +1,108 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.dto.ReactionStateDTO;
+import com.gabeust.forohub.enums.ReactionType;
+import com.gabeust.forohub.repository.IPostReactionCounterRepository;
+import com.gabeust.forohub.repository.IReactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ReactionWriteBufferTest {
+
+    private static final long USER_ID = 7L;
+    private static final long POST_ID = 10L;
+
+    @TempDir
+    Path dir;
+
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final CountDownLatch firstFlushEntered = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstFlush = new CountDownLatch(1);
+    private final AtomicInteger transactions = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    private ReactionWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        doAnswer(invocation -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                if (transactions.incrementAndGet() == 1) {
+                    firstFlushEntered.countDown();
+                    releaseFirstFlush.await(5, TimeUnit.SECONDS);
+                }
+            } finally {
+                active.decrementAndGet();
+            }
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        buffer = new ReactionWriteBuffer(mock(JdbcTemplate.class), transactionTemplate, mock(IReactionRepository.class),
+                mock(IPostReactionCounterRepository.class), mock(FeedCacheService.class), dir.toString(), false);
+        buffer.replay();
+    }
+
+    @Test
+    void shutdownFlushWaitsForTheScheduledOne() throws Exception {
+        buffer.apply(USER_ID, ReactionType.LIKE, () -> new ReactionStateDTO(POST_ID, 1L, null, null, null));
+        Thread scheduled = start(() -> buffer.flush());
+        assertThat(firstFlushEntered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Mientras el primer lote se aplica, el usuario quita la reacción y la aplicación se apaga
+        buffer.apply(USER_ID, ReactionType.LIKE, () -> new ReactionStateDTO(POST_ID, 1L, null, null, null));
+        Thread shutdown = start(() -> buffer.close());
+        awaitBlocked(shutdown);
+
+        assertThat(transactions).hasValue(1);
+        Map<Long, ReactionType> types = new HashMap<>(Map.of(POST_ID, ReactionType.LIKE));
+        buffer.overlay(USER_ID, List.of(POST_ID), types);
+        assertThat(types).doesNotContainKey(POST_ID);
+
+        releaseFirstFlush.countDown();
+        scheduled.join(5_000);
+        shutdown.join(5_000);
+
+        assertThat(transactions).hasValue(2);
+        assertThat(maxActive).hasValue(1);
+    }
+
+    private interface Flush {
+        void run() throws Exception;
+    }
+
+    private static Thread start(Flush flush) {
+        Thread thread = new Thread(() -> {
+            try {
+                flush.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && thread.isAlive() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
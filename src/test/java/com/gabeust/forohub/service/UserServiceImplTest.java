@@ -0,0 +1,51 @@
+package com.gabeust.forohub.service;
+
+import com.gabeust.forohub.entity.Profile;
+import com.gabeust.forohub.entity.User;
+import com.gabeust.forohub.repository.IUserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTest {
+
+    private final IUserRepository userRepository = mock(IUserRepository.class);
+    private final LookupCache lookupCache = mock(LookupCache.class);
+    private final UserServiceImpl userService = new UserServiceImpl(userRepository, lookupCache);
+
+    @Test
+    void deletingAUserInvalidatesItsNickAndEmail() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("ana@forohub.com");
+        Profile profile = new Profile();
+        profile.setNick("ana");
+        user.setProfile(profile);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        userService.deleteByid(7L);
+
+        var order = inOrder(lookupCache, userRepository);
+        order.verify(lookupCache).invalidateNick("ana");
+        order.verify(lookupCache).invalidateEmail("ana@forohub.com");
+        order.verify(userRepository).deleteById(7L);
+    }
+
+    @Test
+    void deletingAMissingUserFailsWithoutInvalidating() {
+        when(userRepository.findById(7L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.deleteByid(7L)).hasMessage("User not found with id: 7");
+
+        verify(userRepository, never()).deleteById(any());
+        verify(lookupCache, never()).invalidateEmail(any());
+    }
+}
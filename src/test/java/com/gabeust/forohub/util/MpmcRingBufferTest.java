@@ -0,0 +1,120 @@
+package com.gabeust.forohub.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MpmcRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new MpmcRingBuffer<Integer>(5).capacity()).isEqualTo(8);
+        assertThat(new MpmcRingBuffer<Integer>(8).capacity()).isEqualTo(8);
+        assertThatThrownBy(() -> new MpmcRingBuffer<Integer>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void keepsFifoOrderAndRejectsWhenFull() {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(drained).containsExactly(0, 1, 2);
+        // La vuelta del arreglo circular reutiliza las celdas liberadas
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.poll()).isEqualTo(3);
+        assertThat(buffer.poll()).isEqualTo(4);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void concurrentProducersAndConsumersDeliverEveryElementExactlyOnce() throws Exception {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 200_000;
+        int total = producers * perProducer;
+        // Capacidad chica a propósito: la cola da muchas vueltas y se llena seguido
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(64);
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            List<Future<?>> producing = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                producing.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = first; i < first + perProducer; i++) {
+                        while (!buffer.offer(i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            List<Future<List<Integer>>> consuming = new ArrayList<>();
+            for (int c = 0; c < consumers; c++) {
+                consuming.add(executor.submit(() -> {
+                    start.await();
+                    List<Integer> received = new ArrayList<>();
+                    List<Integer> batch = new ArrayList<>();
+                    while (consumed.get() < total) {
+                        int drained = buffer.drainTo(batch, 32);
+                        if (drained == 0) {
+                            LockSupport.parkNanos(1_000);
+                            continue;
+                        }
+                        received.addAll(batch);
+                        batch.clear();
+                        consumed.addAndGet(drained);
+                    }
+                    return received;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> producer : producing) {
+                producer.get(60, TimeUnit.SECONDS);
+            }
+            BitSet seen = new BitSet(total);
+            int received = 0;
+            for (Future<List<Integer>> consumer : consuming) {
+                List<Integer> elements = consumer.get(60, TimeUnit.SECONDS);
+                // Cada consumidor ve los elementos de un mismo productor en el orden en que se agregaron
+                int[] lastPerProducer = new int[producers];
+                Arrays.fill(lastPerProducer, -1);
+                for (int element : elements) {
+                    assertThat(seen.get(element)).as("duplicated element %d", element).isFalse();
+                    seen.set(element);
+                    int producer = element / perProducer;
+                    assertThat(element).isGreaterThan(lastPerProducer[producer]);
+                    lastPerProducer[producer] = element;
+                }
+                received += elements.size();
+            }
+            assertThat(received).isEqualTo(total);
+            assertThat(seen.cardinality()).isEqualTo(total);
+            assertThat(buffer.size()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}